@@ -3,31 +3,26 @@ package bot;
 import commands.BotStatus;
 import commands.Countdowns;
 import commands.Event;
-import commands.Help;
-import commands.Ping;
-import commands.Purge;
-import commands.Reload;
 import commands.Timezones;
-import commands.Trained;
 import emoji.Emoji;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
-import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.MessageReaction.ReactionEmote;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
 import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateNicknameEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.guild.react.GuildMessageReactionAddEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
 import net.dv8tion.jda.api.exceptions.ErrorHandler;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
 import net.dv8tion.jda.api.requests.ErrorResponse;
@@ -37,6 +32,14 @@ import org.slf4j.LoggerFactory;
 public class BotEvents {
 	
 	private static final Logger logger = LoggerFactory.getLogger("BotStatus");
+	/**
+	 * Amount of Reactions where the Message was retrieved since it could be relevant
+	 */
+	private static final AtomicLong retrievedReactionMessages = new AtomicLong();
+	/**
+	 * Amount of Reactions that were ignored without retrieving the Message
+	 */
+	private static final AtomicLong skippedReactionMessages = new AtomicLong();
 	
 	
 	/**
@@ -63,19 +66,46 @@ public class BotEvents {
 	 * @param seconds Time until the message should be deleted
 	 */
 	public static void deleteMessageAfterXTime(Message message, long seconds) {
-		new Thread(() -> {
-			try {
-				Thread.sleep(seconds * 1000);
-			} catch (InterruptedException ignored) {
-			}
-			// delete the Message after X sec
-			try {
-				message.delete()
-						.queue(unused -> {},
-								new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
-			} catch (RejectedExecutionException ignored) {
-			}
-		}).start();
+		DelayedDeletions.schedule(message, seconds);
+	}
+	
+	/**
+	 * Checks with the ID of the Message and the Reaction alone if the Message needs to be
+	 * retrieved. Only Event related Messages and wastebasket Reactions are handled, every other
+	 * Reaction is ignored without a REST call
+	 *
+	 * @param messageId The ID of the Message where the Reaction was added
+	 * @param reactionEmote The Reaction that was added
+	 *
+	 * @return {@code true} if the Message should be retrieved
+	 */
+	private static boolean isRelevantReaction(long messageId,
+			@Nonnull ReactionEmote reactionEmote) {
+		boolean relevant = Event.isEventMessage(messageId) || (reactionEmote.isEmoji()
+				&& Emoji.getCleanedUpEmoji(reactionEmote.getEmoji()).equals(Emoji.WASTEBASKET));
+		if (relevant)
+			retrievedReactionMessages.incrementAndGet();
+		else
+			skippedReactionMessages.incrementAndGet();
+		return relevant;
+	}
+	
+	/**
+	 * Returns the amount of Reactions where the Message was retrieved
+	 *
+	 * @return The amount of retrieved Messages
+	 */
+	public static long getRetrievedReactionMessages() {
+		return retrievedReactionMessages.get();
+	}
+	
+	/**
+	 * Returns the amount of Reactions that were ignored without retrieving the Message
+	 *
+	 * @return The amount of saved REST calls
+	 */
+	public static long getSkippedReactionMessages() {
+		return skippedReactionMessages.get();
 	}
 	
 	/**
@@ -101,8 +131,9 @@ public class BotEvents {
 	 */
 	@SubscribeEvent
 	public void onMemberLeave(GuildMemberRemoveEvent event) {
+		PermissionCache.invalidate(event.getUser().getIdLong());
 		// only react it is from the setup Guild
-		if (event.getGuild().getIdLong() == BotMain.ROLES.get("Guild")) {
+		if (event.getGuild().getIdLong() == BotMain.getRole("Guild")) {
 			Member member = event.getMember();
 			String nickname = null;
 			if (member != null)
@@ -114,7 +145,7 @@ public class BotEvents {
 			else
 				message = nickname + " left the Server. User Tag: " + userTag;
 			TextChannel channel = event.getGuild()
-					.getTextChannelById(BotMain.ROLES.get("SystemLogs"));
+					.getTextChannelById(BotMain.getRole("SystemLogs"));
 			logger.warn(message);
 			if (channel != null) {
 				channel.sendMessage(message).queue();
@@ -124,6 +155,36 @@ public class BotEvents {
 		}
 	}
 	
+	/**
+	 * Is triggered when a Member gets a new Role
+	 *
+	 * @param event Role add Event
+	 */
+	@SubscribeEvent
+	public void onMemberRoleAdded(GuildMemberRoleAddEvent event) {
+		PermissionCache.invalidate(event.getUser().getIdLong());
+	}
+	
+	/**
+	 * Is triggered when a Role of a Member is removed
+	 *
+	 * @param event Role remove Event
+	 */
+	@SubscribeEvent
+	public void onMemberRoleRemoved(GuildMemberRoleRemoveEvent event) {
+		PermissionCache.invalidate(event.getUser().getIdLong());
+	}
+	
+	/**
+	 * Is triggered when a Role is deleted
+	 *
+	 * @param event Role delete Event
+	 */
+	@SubscribeEvent
+	public void onRoleDeleted(RoleDeleteEvent event) {
+		PermissionCache.clear(); // the Role could have been on any Member
+	}
+	
 	/**
 	 * Is triggered when an Emote is added in a Private Chat (at least it is filtered that way)
 	 *
@@ -134,18 +195,28 @@ public class BotEvents {
 		if (!event.isFromGuild()) {
 			if (event.getUser() == null || event.getUser().isBot())
 				return; // don't react if the bot is adding this emote
+			if (!isRelevantReaction(event.getMessageIdLong(), event.getReactionEmote()))
+				return; // not a Message the bot has to react to
+			// handle the reaction on the Thread of the User, not on the JDA callback Thread
 			event.retrieveMessage().queue(message -> {
-				if (!message.getAuthor().isBot()) return; // delete only bot messages
-				if (!Event.reactionAdded(message, event.getReactionEmote(), event.getUser(),
-						event.getChannel())) {
-					if (event.getReactionEmote().isEmoji()) {
-						String emoji = Emoji.getCleanedUpEmoji(event.getReactionEmote().getEmoji());
-						if (emoji.equals(Emoji.WASTEBASKET)) {
-							LoggerFactory.getLogger("ReactionAdded")
-									.info("deleting message because of :wastebasket: reaction");
-							message.delete().queue(); // delete the message
+				if (!CommandExecutor.execute(event.getUserIdLong(), () -> {
+					if (!message.getAuthor().isBot()) return; // delete only bot messages
+					if (!Event.reactionAdded(message, event.getReactionEmote(), event.getUser(),
+							event.getChannel())) {
+						if (event.getReactionEmote().isEmoji()) {
+							String emoji = Emoji
+									.getCleanedUpEmoji(event.getReactionEmote().getEmoji());
+							if (emoji.equals(Emoji.WASTEBASKET)) {
+								LoggerFactory.getLogger("ReactionAdded")
+										.info("deleting message because of :wastebasket: reaction");
+								message.delete().queue(); // delete the message
+							}
 						}
 					}
+				})) {
+					// the Bot can't remove the reaction of the User in a Private Chat
+					reactionRejected(event.getChannel(), event.getUser(),
+							"please remove your reaction and add it again");
 				}
 			});
 		}
@@ -159,34 +230,58 @@ public class BotEvents {
 	@SubscribeEvent
 	public void onGuildEmoteAdded(GuildMessageReactionAddEvent event) {
 		if (event.getUser().isBot()) return; // don't react if the bot is adding this emote
-		Member authorMember = event.getGuild().getMember(event.getUser());
-		List<Role> rolesOfUser = authorMember != null ? authorMember.getRoles() : new ArrayList<>();
-		boolean isAdmin =
-				rolesOfUser.contains(event.getGuild().getRoleById(BotMain.ROLES.get("Admin"))) ||
-						event.getUser().getIdLong() == BotMain.ROLES.get("Owner");
-		event.retrieveMessage()
-				.queue(message -> {
-					if (!message.getAuthor().isBot()) return; // only bot messages
-					// check if it is a reaction for an event
-					if (!Event.reactionAdded(message, event.getReactionEmote(), event.getUser(),
-							event.getChannel())) {
-						// only do something if he is admin or the wastebasket was already here from the bot
-						if ((isAdmin || message.getReactions().get(0).isSelf())
-								&& event.getReactionEmote().isEmoji()) {
-							String emoji = Emoji
-									.getCleanedUpEmoji(event.getReactionEmote().getEmoji());
-							if (emoji.equals(Emoji.WASTEBASKET)) {
-								LoggerFactory.getLogger("ReactionAdded")
-										.info("deleting message because of :wastebasket: reaction");
-								// check if this message was part of a Countdown
-								if (Countdowns.messageIds.contains(message.getId()))
-									// close that countdown since the message will be deleted
-									Countdowns.closeSpecificThread(message.getId());
-								message.delete().queue(); // delete the message
-							}
+		if (!isRelevantReaction(event.getMessageIdLong(), event.getReactionEmote()))
+			return; // not a Message the bot has to react to
+		boolean isAdmin = PermissionCache.has(PermissionCache
+				.getPermissions(event.getJDA(), event.getUser(), event.getGuild()),
+				PermissionCache.ADMIN);
+		// handle the reaction on the Thread of the User, not on the JDA callback Thread
+		event.retrieveMessage().queue(message -> {
+			if (!CommandExecutor.execute(event.getUserIdLong(), () -> {
+				if (!message.getAuthor().isBot()) return; // only bot messages
+				// check if it is a reaction for an event
+				if (!Event.reactionAdded(message, event.getReactionEmote(), event.getUser(),
+						event.getChannel())) {
+					// only do something if he is admin or the wastebasket was already here from
+					// the bot
+					if ((isAdmin || message.getReactions().get(0).isSelf())
+							&& event.getReactionEmote().isEmoji()) {
+						String emoji = Emoji.getCleanedUpEmoji(event.getReactionEmote().getEmoji());
+						if (emoji.equals(Emoji.WASTEBASKET)) {
+							LoggerFactory.getLogger("ReactionAdded")
+									.info("deleting message because of :wastebasket: reaction");
+							// close the countdown of this message if there is one
+							// since the message will be deleted
+							Countdowns.closeSpecificThread(message.getIdLong());
+							message.delete().queue(); // delete the message
 						}
 					}
-				});
+				}
+			})) {
+				// remove the reaction so that the User can add it again
+				message.removeReaction(event.getReactionEmote().getAsReactionCode(),
+						event.getUser()).queue(unused -> {},
+						new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
+				reactionRejected(event.getChannel(), event.getUser(),
+						"please add your reaction again");
+			}
+		});
+	}
+	
+	/**
+	 * Tells the User that the Reaction was not handled because the queue of the User is full, like
+	 * a Command that could not be queued
+	 *
+	 * @param channel The Channel of the Reaction
+	 * @param user The User that Reacted
+	 * @param retry What the User has to do to try again
+	 */
+	private static void reactionRejected(@Nonnull MessageChannel channel, @Nonnull User user,
+			@Nonnull String retry) {
+		LoggerFactory.getLogger("ReactionAdded")
+				.warn("Could not handle the reaction of " + user.getName() + ", the queue is full");
+		channel.sendMessage("I'm busy right now, " + retry + "...")
+				.queue(message -> deleteMessageAfterXTime(message, 10));
 	}
 	
 	/**
@@ -233,78 +328,22 @@ public class BotEvents {
 	@SubscribeEvent
 	public void onReceiveMessage(MessageReceivedEvent event) {
 		if (event.getAuthor().isBot()) return;
+		String content = event.getMessage().getContentRaw();
+		// only commands need the Roles of the User
+		if (content.length() == 0 || content.charAt(0) != '!') return;
 		Logger logger = LoggerFactory.getLogger("ReceivedMessage");
-		String content = event.getMessage().getContentRaw().toLowerCase(Locale.ROOT);
-		MessageChannel channel = event.getChannel();
-		
-		// These boolean are always false if written in a personal message
-		boolean isAdmin = false;
-		boolean isEventOrganizer = false;
-		boolean isInstructor = false;
 		
-		Member authorMember = null;
-		Guild guild;
-		if (!event.isFromGuild()) {
-			guild = event.getJDA().getGuildById(BotMain.ROLES.get("Guild"));
-			if (guild != null) {
-				authorMember = guild.getMember(event.getAuthor());
-			}
-		} else {
-			guild = event.getGuild();
-			authorMember = guild.getMember(event.getAuthor());
-		}
+		// The Roles are always false if the User is not in the setup Guild
+		int permissions = PermissionCache.getPermissions(event.getJDA(), event.getAuthor(),
+				event.isFromGuild() ? event.getGuild() : null);
 		
-		// Check the roles of the User
-		if (authorMember != null) {
-			List<Role> rolesOfUser = authorMember.getRoles();
-			
-			Long adminRole = BotMain.ROLES.get("Admin");
-			Long eventOrganizerRole = BotMain.ROLES.get("Event_Organizer");
-			Long instructorRole = BotMain.ROLES.get("Instructor");
-			
-			isAdmin = rolesOfUser.contains(adminRole == null ? null
-					: guild.getRoleById(adminRole));
-			isEventOrganizer = rolesOfUser.contains(eventOrganizerRole == null ? null
-					: guild.getRoleById(eventOrganizerRole));
-			isInstructor = rolesOfUser.contains(instructorRole == null ? null
-					: guild.getRoleById(instructorRole));
-		}
-		
-		boolean isOwner = event.getAuthor().getIdLong() == BotMain.ROLES.get("Owner");
-		isAdmin = isAdmin || isOwner; // Owner is also admin
-		
-		if (content.length() != 0 && content.charAt(0) == '!') {
-			logger.info("Received Message from " + event.getAuthor().getName() + " in channel "
-					+ channel.getName() + ": " + event.getMessage().getContentRaw());
-			String command;
-			content = content.substring(1);
-			if (content.indexOf(' ') != -1)
-				command = content.substring(0, content.indexOf(' '));
-			else
-				command = content;
-			switch (command) {
-				case "help" -> Help.showHelp(isInstructor, isEventOrganizer, isAdmin,
-						channel, content); // show Help Page
-				case "ping" -> Ping.makePing(channel); // make a ping test
-				case "time" -> Timezones
-						.getTimezoneOfUserCommand(event, content); // get the Timezone of a User
-				case "timezones" -> Timezones
-						.getTimezoneOfAllUsersCommand(event); // print the Timezone of all Users
-				case "trained" -> Trained
-						.makeUserTrained(isInstructor, event); // give a User the Trained Role
-				case "countdown" -> Countdowns.countdownCommand(isEventOrganizer, isOwner,
-						event); // create a live countdown
-				case "event" -> Event
-						.eventCommand(isEventOrganizer, isOwner, event, content); // event command
-				case "restart" -> BotStatus
-						.restartBot(isAdmin, channel); // restarts the Bot connection
-				case "reload" -> Reload.reloadMain(isAdmin, event,
-						content); // reload the Config files or Timezones
-				case "purge" -> Purge.purgeMessages(isOwner, event,
-						content); // purges X Messages from the channel
-				case "stop" -> BotStatus
-						.stopBot(isOwner, channel); // stops the Bot, this takes a while
-			}
+		logger.info("Received Message from " + event.getAuthor().getName() + " in channel "
+				+ event.getChannel().getName() + ": " + content);
+		// run the Command on the Thread of the User, not on the JDA Event Thread
+		if (!CommandExecutor.execute(event.getAuthor().getIdLong(),
+				() -> CommandRouter.dispatch(event, content, permissions))) {
+			event.getChannel().sendMessage("I'm busy right now...")
+					.queue(message -> deleteMessageAfterXTime(message, 10));
 		}
 	}
 	
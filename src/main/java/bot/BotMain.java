@@ -5,39 +5,59 @@ import ch.qos.logback.core.util.StatusPrinter;
 import commands.Countdowns;
 import commands.Event;
 import commands.Timezones;
+import commands.event.EventActors;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import telegram.TelegramBots;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.security.auth.login.LoginException;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.hooks.AnnotatedEventManager;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import xml.Config;
+import xml.StateStore;
 import xml.XMLParser;
 
 public class BotMain {
 	
 	/**
-	 * The IDs for when the Bot is restarted to know which Message to edit
+	 * The Logger for Log Messages
 	 */
-	public static final long[] restartIDs = new long[2];
+	private static final Logger logger = LoggerFactory.getLogger("Bot Main");
 	/**
-	 * Lock for the {@link #restartIDs}
+	 * Counter to give the Threads of the {@link #startup} pool a unique name
 	 */
-	public static final Object lock = new Object();
+	private static final AtomicInteger threadCounter = new AtomicInteger();
 	/**
-	 * Token of the Bot, Fetch with the Token.cfg file
+	 * The Threads that run the phases of the startup
 	 */
-	public static String TOKEN = XMLParser.getBotToken();
+	private static final ExecutorService startup = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Startup " + threadCounter.getAndIncrement());
+		thread.setDaemon(true);
+		return thread;
+	});
 	/**
-	 * Map of special Role IDs:
-	 * Admin, Owner, Event Organizer
+	 * The soft restart that waits for the gateway to be connected again, {@code null} if none
 	 */
-	public static Map<String, Long> ROLES = XMLParser.getRoles();
+	private static final AtomicReference<CompletableFuture<JDA>> softRestart =
+			new AtomicReference<>();
+	/**
+	 * The current static configuration, replaced as a whole when the Config is reloaded
+	 */
+	private static final AtomicReference<Config> config = new AtomicReference<>(
+			XMLParser.readConfig());
 	/**
 	 * {@link JDA} Instance of the Bot
 	 */
@@ -57,7 +77,7 @@ public class BotMain {
 	 * Will setup the JDA Builder with the necessary settings
 	 */
 	private static void initializeJDABuilder() {
-		jdaBuilder = JDABuilder.createDefault(TOKEN)
+		jdaBuilder = JDABuilder.createDefault(config.get().token)
 				// set to Event Manager to use @Annotated Methods
 				.setEventManager(new AnnotatedEventManager())
 				// add the Event Listener Class
@@ -78,64 +98,208 @@ public class BotMain {
 	 * Will reload the Configs (without the Countdowns and Timezones)
 	 */
 	public static void reloadConfig() {
-		TOKEN = XMLParser.getBotToken();
-		ROLES = XMLParser.getRoles();
+		config.set(XMLParser.readConfig());
+		PermissionCache.clear(); // the Role IDs could have changed
 	}
 	
 	/**
-	 * Will restart the Bot
+	 * Returns the current static configuration. Keep the returned Config if several values need
+	 * to come from the same version
+	 *
+	 * @return The Config
 	 */
-	public static void restartBot() {
-		disconnectBot(); // disconnect the Bot
-		initializeJDABuilder();
+	public static Config getConfig() {
+		return config.get();
+	}
+	
+	/**
+	 * Returns the ID of a special Role or Channel
+	 *
+	 * @param name The name of the Role, for example {@code Guild} or {@code Admin}
+	 *
+	 * @return The ID, or {@code null} if not set
+	 */
+	public static Long getRole(String name) {
+		return config.get().roles.get(name);
+	}
+	
+	/**
+	 * Returns the numeric value of a Setting
+	 *
+	 * @param name The name of the Setting
+	 * @param defaultValue The value if the Setting is not set or not a number
+	 *
+	 * @return The value of the Setting
+	 */
+	public static long getSetting(String name, long defaultValue) {
 		try {
-			connectBot(); // connect the Bot
-		} catch (LoginException e) {
-			e.printStackTrace();
+			String value = config.get().settings.get(name);
+			return value == null ? defaultValue : Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			LoggerFactory.getLogger("Settings")
+					.warn("Setting " + name + " is not a number, using " + defaultValue);
+			return defaultValue;
 		}
-		synchronized (lock) {
-			while (restartIDs[1] == 0L) {
-				try {
-					lock.wait();
-				} catch (InterruptedException ignored) {
-				}
+	}
+	
+	/**
+	 * Will restart the Bot.
+	 * <p>
+	 * A soft restart only reconnects the gateway and resumes the session, the Countdowns, Events,
+	 * Timezones and the cached Members stay in memory. A hard restart saves everything, shuts
+	 * down the JDA and builds a new one that loads everything again
+	 *
+	 * @param hard If the JDA should be rebuilt
+	 *
+	 * @return The future of the restart with the connected JDA
+	 */
+	public static CompletableFuture<JDA> restartBot(boolean hard) {
+		if (hard) {
+			disconnectBot(); // disconnect the Bot
+			initializeJDABuilder();
+			try {
+				connectBot(); // connect the Bot
+			} catch (LoginException e) {
+				return CompletableFuture.failedFuture(e);
 			}
-			TextChannel channel = jda.getTextChannelById(restartIDs[0]);
-			if (channel != null)
-				channel.editMessageById(restartIDs[1], "Bot successfully restarted").queue();
-			restartIDs[0] = 0;
-			restartIDs[1] = 0;
+			return CompletableFuture.completedFuture(jda);
+		}
+		CompletableFuture<JDA> restart = new CompletableFuture<>();
+		CompletableFuture<JDA> running = softRestart.compareAndExchange(null, restart);
+		if (running != null)
+			return running; // a soft restart is already waiting for the gateway
+		PermissionCache.clear(); // Roles could have changed
+		long start = System.nanoTime();
+		if (!GatewayReconnect.close(jda)) {
+			logger.warn("Could not close the gateway, doing a hard restart");
+			softRestart.compareAndSet(restart, null);
+			restartBot(true).whenComplete((connected, throwable) -> {
+				if (throwable == null)
+					restart.complete(connected);
+				else
+					restart.completeExceptionally(throwable);
+			});
+			return restart;
 		}
+		// the hard restart blocks, so it doesn't run on the Thread of the timeout
+		return restart.orTimeout(2, TimeUnit.MINUTES).handleAsync((connected, throwable) -> {
+			softRestart.compareAndSet(restart, null);
+			if (throwable == null) {
+				logger.info("Soft restart took "
+						+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+				return CompletableFuture.completedFuture(connected);
+			}
+			if (!(throwable instanceof TimeoutException))
+				return CompletableFuture.<JDA>failedFuture(throwable);
+			logger.error("The gateway did not reconnect after the soft restart, doing a hard "
+					+ "restart");
+			return restartBot(true);
+		}, startup).thenCompose(future -> future);
 	}
 	
 	/**
-	 * Connect to the Bot and load the Countdowns
+	 * Called when the gateway is connected again after it was disconnected. Completes a waiting
+	 * soft restart
 	 *
-	 * @throws LoginException if the TOKEN of the Bot is wrong
+	 * @param connected The JDA that is connected again
+	 * @param resumed {@code true} if the session was resumed, {@code false} if a new session was
+	 * 		started and the caches were rebuilt
 	 */
-	private static void connectBot() throws LoginException {
-		jda = jdaBuilder.build();
-		try {
-			jda.awaitReady(); // wait that the Bot is fully connected
-			Countdowns.restartCountdowns(jda);
-			Event.loadEvents(jda);
-			Guild guild = jda
-					.getGuildById(ROLES.get("Guild")); // get the Guild where the Bot is active
+	static void onGatewayConnected(JDA connected, boolean resumed) {
+		CompletableFuture<JDA> restart = softRestart.get();
+		if (restart == null)
+			return;
+		if (!resumed) { // the Member cache is empty again
+			Guild guild = connected.getGuildById(getRole("Guild"));
 			if (guild != null)
 				guild.loadMembers().onSuccess(members -> {}); // load all Members into cache
-			Timezones.loadTimezones(); // load the all timezones of all the Users
-		} catch (InterruptedException ignored) {
+		}
+		restart.complete(connected);
+	}
+	
+	/**
+	 * Connect to the Bot and load the Countdowns, Events and Timezones. The phases of the startup
+	 * run in parallel where they don't depend on each other, the Timezones are already loaded
+	 * while the Bot connects. Returns when everything except the Members is loaded
+	 *
+	 * @throws LoginException if the Token of the Bot is wrong
+	 */
+	private static void connectBot() throws LoginException {
+		long start = System.nanoTime();
+		PermissionCache.clear(); // Roles could have changed while disconnected
+		JDA connecting = jdaBuilder.build();
+		jda = connecting;
+		if (!GatewayReconnect.isSupported(connecting))
+			logger.warn("The JDA can't close the gateway, every restart will be a hard restart");
+		CompletableFuture<Void> now = CompletableFuture.completedFuture(null);
+		// load the all timezones of all the Users
+		CompletableFuture<Void> timezones = runPhase("Timezones", now, Timezones::loadTimezones);
+		CompletableFuture<Void> ready = runPhase("Gateway", now, () -> {
+			try {
+				connecting.awaitReady(); // wait that the Bot is fully connected
+			} catch (InterruptedException e) {
+				throw new CompletionException(e);
+			}
+		});
+		CompletableFuture<Void> countdowns = runPhase("Countdowns", ready,
+				() -> Countdowns.restartCountdowns(connecting));
+		CompletableFuture<Void> events = runPhase("Events", ready,
+				() -> Event.loadEvents(connecting));
+		runPhase("Members", ready, () -> {
+			// get the Guild where the Bot is active
+			Guild guild = connecting.getGuildById(getRole("Guild"));
+			if (guild != null)
+				guild.loadMembers().get(); // load all Members into cache
+		});
+		try {
+			CompletableFuture.allOf(timezones, countdowns, events).get();
+			logger.info("Startup took "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+		} catch (InterruptedException | ExecutionException e) {
+			logger.error("Startup did not complete", e);
 		}
 	}
 	
 	/**
-	 * Will disconnect the Bot and save the Countdowns
+	 * Runs one phase of the startup on the {@link #startup} Threads and logs how long it took
+	 *
+	 * @param name The name of the phase
+	 * @param after The phase that has to be completed first
+	 * @param phase The phase
+	 *
+	 * @return The future of the phase, completed exceptionally if the phase or the phase before
+	 * 		failed
+	 */
+	private static CompletableFuture<Void> runPhase(String name, CompletableFuture<Void> after,
+			Runnable phase) {
+		return after.thenRunAsync(() -> {
+			long start = System.nanoTime();
+			try {
+				phase.run();
+			} catch (RuntimeException e) {
+				logger.error("Startup phase " + name + " failed", e);
+				throw e;
+			}
+			logger.info("Startup phase " + name + " took "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+		}, startup);
+	}
+	
+	/**
+	 * Will disconnect the Bot and save the Countdowns, Timezones and Events. The listeners are
+	 * removed first and the running Commands and Event changes are finished before the Events are
+	 * saved, so that nothing changes them while they are saved
 	 */
 	public static void disconnectBot() {
+		jda.getRegisteredListeners().forEach(jda::removeEventListener);
 		Countdowns.closeAllThreads(); // finish and save the Countdowns
+		if (!CommandExecutor.awaitIdle(10000))
+			logger.warn("Commands are still running, saving anyway");
 		Timezones.saveTimezones(); // save all User Timezones
+		if (!EventActors.awaitIdle(10000))
+			logger.warn("Changes to the Events are still running, saving anyway");
 		Event.saveEvents(); // save all Events
-		jda.getRegisteredListeners().forEach(jda::removeEventListener);
+		StateStore.flush(); // wait until everything is written
 		jda.shutdown();
 	}
 	
@@ -43,6 +43,7 @@ public class BotStatusEvents {
 	
 	@SubscribeEvent
 	public void onResumed(ResumedEvent event) {
+		BotMain.onGatewayConnected(event.getJDA(), true);
 		if (shutdownThread != null) {
 			shutdownThread.interrupt();
 		} else
@@ -51,6 +52,7 @@ public class BotStatusEvents {
 	
 	@SubscribeEvent
 	public void onReconnected(ReconnectedEvent event) {
+		BotMain.onGatewayConnected(event.getJDA(), false);
 		if (shutdownThread != null) {
 			shutdownThread.interrupt();
 		} else
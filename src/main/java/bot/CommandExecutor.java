@@ -0,0 +1,178 @@
+package bot;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes Commands and Reactions outside of the JDA Event Thread, so that a slow Command does not
+ * stall every other Event.
+ * <p>
+ * Each User is assigned to one of several single Threads, so the Commands of one User still run
+ * in the order they were send. The queue of every Thread is bounded, new work is rejected when it
+ * is full
+ */
+public class CommandExecutor {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Command Executor");
+	/**
+	 * The single Threads, a User always uses the same one
+	 */
+	private static final ThreadPoolExecutor[] workers = createWorkers(
+			(int) Math.max(1, BotMain.getSetting("CommandWorkers", 4)),
+			(int) Math.max(1, BotMain.getSetting("CommandQueueSize", 100)));
+	/**
+	 * Amount of tasks that finished
+	 */
+	private static final AtomicLong executedTasks = new AtomicLong();
+	/**
+	 * Amount of tasks that were rejected because the queue was full
+	 */
+	private static final AtomicLong rejectedTasks = new AtomicLong();
+	/**
+	 * Sum of the time in nanoseconds the finished tasks waited in the queue
+	 */
+	private static final AtomicLong totalWaitTime = new AtomicLong();
+	/**
+	 * Sum of the time in nanoseconds the finished tasks took to run
+	 */
+	private static final AtomicLong totalRunTime = new AtomicLong();
+	
+	/**
+	 * Creates the single Threads with their bounded queues
+	 *
+	 * @param amount The amount of Threads
+	 * @param queueSize The maximum amount of waiting tasks per Thread
+	 *
+	 * @return The single Threads
+	 */
+	private static ThreadPoolExecutor[] createWorkers(int amount, int queueSize) {
+		ThreadPoolExecutor[] executors = new ThreadPoolExecutor[amount];
+		for (int i = 0; i < amount; i++) {
+			String name = "Command Worker " + i;
+			executors[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(queueSize), runnable -> {
+				Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executors;
+	}
+	
+	/**
+	 * Runs the task on the Thread of the User, after all tasks of the User that are already
+	 * waiting
+	 *
+	 * @param userId The ID of the User that triggered the task
+	 * @param task The task
+	 *
+	 * @return {@code false} if the queue is full and the task will not run
+	 */
+	public static boolean execute(long userId, @Nonnull Runnable task) {
+		long queued = System.nanoTime();
+		try {
+			workers[Math.floorMod(Long.hashCode(userId), workers.length)].execute(() -> {
+				long started = System.nanoTime();
+				try {
+					task.run();
+				} catch (RuntimeException e) { // don't let one task kill the Thread
+					logger.error("Task of User " + userId + " failed", e);
+				} finally {
+					totalWaitTime.addAndGet(started - queued);
+					totalRunTime.addAndGet(System.nanoTime() - started);
+					executedTasks.incrementAndGet();
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			rejectedTasks.incrementAndGet();
+			logger.warn("Queue is full, dropping task of User " + userId);
+			return false;
+		}
+	}
+	
+	/**
+	 * Waits until all queued Commands and Reactions are done. Nothing new should be executed while
+	 * waiting
+	 *
+	 * @param timeout The maximum time to wait in milliseconds
+	 *
+	 * @return {@code false} if a task was still waiting or running after the timeout
+	 */
+	public static boolean awaitIdle(long timeout) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		for (ThreadPoolExecutor worker : workers) {
+			while (worker.getActiveCount() > 0 || !worker.getQueue().isEmpty()) {
+				if (System.nanoTime() - deadline >= 0)
+					return false;
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the amount of tasks that are waiting in all queues
+	 *
+	 * @return The current queue depth
+	 */
+	public static int getQueueDepth() {
+		int depth = 0;
+		for (ThreadPoolExecutor worker : workers)
+			depth += worker.getQueue().size();
+		return depth;
+	}
+	
+	/**
+	 * Returns the amount of tasks that finished
+	 *
+	 * @return The amount of executed tasks
+	 */
+	public static long getExecutedTasks() {
+		return executedTasks.get();
+	}
+	
+	/**
+	 * Returns the amount of tasks that were rejected because the queue was full
+	 *
+	 * @return The amount of rejected tasks
+	 */
+	public static long getRejectedTasks() {
+		return rejectedTasks.get();
+	}
+	
+	/**
+	 * Returns the average time the finished tasks waited in the queue
+	 *
+	 * @return The average wait time in milliseconds
+	 */
+	public static double getAverageWaitTime() {
+		long executed = executedTasks.get();
+		return executed == 0 ? 0 : totalWaitTime.get() / 1_000_000d / executed;
+	}
+	
+	/**
+	 * Returns the average time the finished tasks took to run
+	 *
+	 * @return The average run time in milliseconds
+	 */
+	public static double getAverageRunTime() {
+		long executed = executedTasks.get();
+		return executed == 0 ? 0 : totalRunTime.get() / 1_000_000d / executed;
+	}
+	
+}
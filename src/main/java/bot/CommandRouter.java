@@ -0,0 +1,250 @@
+package bot;
+
+import commands.BotStatus;
+import commands.Countdowns;
+import commands.Event;
+import commands.Help;
+import commands.Ping;
+import commands.Purge;
+import commands.Reload;
+import commands.Timezones;
+import commands.Trained;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of all Commands. The name of a Command is matched with a prefix tree directly on the
+ * Content of the Message, the required Permissions are checked before the Command is executed
+ */
+public class CommandRouter {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Command Router");
+	/**
+	 * The root of the prefix tree, Command names only contain the letters {@code a} to {@code z}
+	 */
+	private static final Node root = new Node();
+	
+	static {
+		register(new Command("help", 0, "[event]", (event, permissions, arguments) ->
+				Help.showHelp(PermissionCache.has(permissions, PermissionCache.INSTRUCTOR),
+						PermissionCache.has(permissions, PermissionCache.EVENT_ORGANIZER),
+						PermissionCache.has(permissions, PermissionCache.ADMIN),
+						event.getChannel(), arguments))); // show Help Page
+		register(new Command("ping", 0, "", (event, permissions, arguments) ->
+				Ping.makePing(event.getChannel()))); // make a ping test
+		register(new Command("time", 0, "<@User ...> | <Name, ...>",
+				(event, permissions, arguments) -> Timezones
+						.getTimezoneOfUserCommand(event, arguments))); // get the Timezone of a User
+		register(new Command("timezones", 0, "", (event, permissions, arguments) -> Timezones
+				.getTimezoneOfAllUsersCommand(event))); // print the Timezone of all Users
+		register(new Command("trained", PermissionCache.INSTRUCTOR, "<@User>",
+				(event, permissions, arguments) -> Trained
+						.makeUserTrained(event))); // give a User the Trained Role
+		register(new Command("countdown", PermissionCache.EVENT_ORGANIZER | PermissionCache.OWNER,
+				"<DD.MM.YYYY> <HH:mm> [Text]", (event, permissions, arguments) -> Countdowns
+				.countdownCommand(event))); // create a live countdown
+		register(new Command("event", PermissionCache.EVENT_ORGANIZER | PermissionCache.OWNER,
+				"<create|delete|switch|vote|move|...> [arguments]",
+				(event, permissions, arguments) -> Event
+						.eventCommand(event, arguments))); // event command
+		register(new Command("restart", PermissionCache.ADMIN, "[hard]",
+				(event, permissions, arguments) -> BotStatus.restartBot(event.getChannel(),
+						arguments))); // restarts the Bot connection
+		register(new Command("status", PermissionCache.ADMIN, "",
+				(event, permissions, arguments) -> BotStatus
+						.showStatus(event.getChannel()))); // shows the statistics of the Bot
+		register(new Command("reload", PermissionCache.ADMIN, "<config|timezones>",
+				(event, permissions, arguments) -> Reload.reloadMain(event,
+						arguments))); // reload the Config files or Timezones
+		register(new Command("purge", PermissionCache.OWNER, "<amount>",
+				(event, permissions, arguments) -> Purge.purgeMessages(event,
+						arguments))); // purges X Messages from the channel
+		register(new Command("stop", PermissionCache.OWNER, "",
+				(event, permissions, arguments) -> BotStatus
+						.stopBot(event.getChannel()))); // stops the Bot, this takes a while
+	}
+	
+	/**
+	 * Adds a Command with all its aliases to the prefix tree
+	 *
+	 * @param command The Command to add
+	 *
+	 * @throws IllegalArgumentException If a name contains something else than letters or is
+	 * 		already registered
+	 */
+	public static void register(@Nonnull Command command) throws IllegalArgumentException {
+		insert(command.name, command);
+		for (String alias : command.aliases)
+			insert(alias, command);
+	}
+	
+	/**
+	 * Adds one name of a Command to the prefix tree
+	 *
+	 * @param name The name or alias of the Command
+	 * @param command The Command
+	 *
+	 * @throws IllegalArgumentException If the name contains something else than letters or is
+	 * 		already registered
+	 */
+	private static void insert(@Nonnull String name, @Nonnull Command command)
+			throws IllegalArgumentException {
+		Node node = root;
+		for (int i = 0; i < name.length(); i++) {
+			int index = toIndex(name.charAt(i));
+			if (index == -1)
+				throw new IllegalArgumentException(
+						"Command name can only contain letters: " + name);
+			if (node.children[index] == null)
+				node.children[index] = new Node();
+			node = node.children[index];
+		}
+		if (node.command != null)
+			throw new IllegalArgumentException("Command is already registered: " + name);
+		node.command = command;
+	}
+	
+	/**
+	 * Finds the Command of the Message and executes it if the User has the Permission for it
+	 *
+	 * @param event The Message Receive Event
+	 * @param content The raw Content of the Message, starting with {@code !}
+	 * @param permissions The Permission flags of the User, see {@link PermissionCache}
+	 *
+	 * @return {@code true} if a Command was found
+	 */
+	public static boolean dispatch(@Nonnull MessageReceivedEvent event, @Nonnull String content,
+			int permissions) {
+		Node node = root;
+		int end = 1; // skip the '!'
+		while (end < content.length() && content.charAt(end) != ' ') {
+			int index = toIndex(content.charAt(end));
+			if (index == -1 || node.children[index] == null)
+				return false; // no Command has this name
+			node = node.children[index];
+			end++;
+		}
+		Command command = node.command;
+		if (command == null)
+			return false;
+		if (command.permission != 0 && (permissions & command.permission) == 0) {
+			event.getChannel().sendMessage("You don't have permission for this command").queue();
+			return true;
+		}
+		// the arguments are everything after the first space, in lower case
+		String arguments = end + 1 < content.length()
+				? content.substring(end + 1).toLowerCase(Locale.ROOT) : "";
+		try {
+			command.handler.execute(event, permissions, arguments);
+		} catch (NumberFormatException e) { // an argument was not a number
+			logger.warn("Could not parse the arguments of the " + command.name + " command");
+			event.getChannel().sendMessage("Usage: `!" + command.name + " " + command.usage + "`")
+					.queue(message -> BotEvents.deleteMessageAfterXTime(message, 10));
+		}
+		return true;
+	}
+	
+	/**
+	 * Maps a letter to its index in {@link Node#children}, ignoring the case
+	 *
+	 * @param c The character
+	 *
+	 * @return The index, or -1 if the character is not a letter from {@code a} to {@code z}
+	 */
+	private static int toIndex(char c) {
+		if (c >= 'A' && c <= 'Z')
+			return c - 'A';
+		if (c >= 'a' && c <= 'z')
+			return c - 'a';
+		return -1;
+	}
+	
+	/**
+	 * Executes a Command
+	 */
+	@FunctionalInterface
+	public interface CommandHandler {
+		
+		/**
+		 * Executes the Command, the Permissions are already checked
+		 *
+		 * @param event The Message Receive Event
+		 * @param permissions The Permission flags of the User, see {@link PermissionCache}
+		 * @param arguments Everything after the Command name in lower case, can be empty
+		 */
+		void execute(@Nonnull MessageReceivedEvent event, int permissions,
+				@Nonnull String arguments);
+		
+	}
+	
+	/**
+	 * Description of one Command
+	 */
+	public static class Command {
+		
+		/**
+		 * The name of the Command, without the {@code !}
+		 */
+		public final String name;
+		/**
+		 * Other names the Command can be called with
+		 */
+		public final String[] aliases;
+		/**
+		 * The Permission flags that are allowed to use this Command, 0 if everyone can use it.
+		 * One of the flags is enough
+		 */
+		public final int permission;
+		/**
+		 * The arguments the Command takes, for example {@code <amount>}, empty if none
+		 */
+		public final String usage;
+		/**
+		 * What the Command does
+		 */
+		private final CommandHandler handler;
+		
+		/**
+		 * Creates a new Command
+		 *
+		 * @param name The name of the Command, only letters
+		 * @param permission The Permission flags that are allowed to use the Command, see
+		 *        {@link PermissionCache}, 0 if everyone can use it
+		 * @param usage The arguments the Command takes
+		 * @param handler What the Command does
+		 * @param aliases Other names the Command can be called with
+		 */
+		public Command(@Nonnull String name, int permission, @Nonnull String usage,
+				@Nonnull CommandHandler handler, @Nonnull String... aliases) {
+			this.name = name;
+			this.aliases = aliases;
+			this.permission = permission;
+			this.usage = usage;
+			this.handler = handler;
+		}
+		
+	}
+	
+	/**
+	 * One Node of the prefix tree
+	 */
+	private static class Node {
+		
+		/**
+		 * The next Nodes, one for each letter
+		 */
+		private final Node[] children = new Node[26];
+		/**
+		 * The Command that ends at this Node, null if none
+		 */
+		private Command command;
+		
+	}
+	
+}
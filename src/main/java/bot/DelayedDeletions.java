@@ -0,0 +1,244 @@
+package bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.exceptions.ErrorHandler;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes Messages after a given amount of time. All pending deletions are entries in the queue of
+ * one single Thread.
+ * <p>
+ * Messages that are due in the same Channel within {@link #BATCH_WINDOW} milliseconds are deleted
+ * together with one bulk delete if possible
+ */
+public class DelayedDeletions {
+	
+	/**
+	 * Time in milliseconds that due Messages of one Channel are collected before they are deleted
+	 */
+	private static final long BATCH_WINDOW = 1000;
+	/**
+	 * Maximum amount of Messages Discord accepts in one bulk delete
+	 */
+	private static final int MAX_BULK_SIZE = 100;
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Delayed Deletions");
+	/**
+	 * The single Thread that deletes the Messages when they are due
+	 */
+	private static final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+			runnable -> {
+				Thread thread = new Thread(runnable, "Delayed Deletions");
+				thread.setDaemon(true);
+				return thread;
+			});
+	/**
+	 * The due Messages waiting for their batch to be deleted, mapped to the Channel ID.
+	 * <p>
+	 * The Lists are only touched by the {@link #scheduler} Thread
+	 */
+	private static final Map<Long, List<Message>> dueMessages = new ConcurrentHashMap<>();
+	/**
+	 * Amount of Messages in {@link #dueMessages}
+	 */
+	private static final AtomicInteger batchedMessages = new AtomicInteger();
+	/**
+	 * Amount of Messages that were deleted by this Service
+	 */
+	private static final AtomicLong deletedMessages = new AtomicLong();
+	/**
+	 * Amount of deletions that were cancelled before they were due
+	 */
+	private static final AtomicLong cancelledDeletions = new AtomicLong();
+	/**
+	 * Amount of bulk deletes that were done instead of single deletes
+	 */
+	private static final AtomicLong bulkDeletions = new AtomicLong();
+	
+	static {
+		// don't keep cancelled deletions in the queue until they would have been due
+		scheduler.setRemoveOnCancelPolicy(true);
+	}
+	
+	/**
+	 * Deletes the Message after the given amount of time in Seconds
+	 *
+	 * @param message The Message to delete
+	 * @param seconds Time until the Message should be deleted
+	 *
+	 * @return The handle to cancel the deletion with {@link #cancel(ScheduledFuture)}
+	 */
+	@Nonnull
+	public static ScheduledFuture<?> schedule(@Nonnull Message message, long seconds) {
+		return schedule(message, seconds, null);
+	}
+	
+	/**
+	 * Deletes the Message after the given amount of time in Seconds
+	 *
+	 * @param message The Message to delete
+	 * @param seconds Time until the Message should be deleted
+	 * @param beforeDeletion Will be run just before the Message is deleted, can be null
+	 *
+	 * @return The handle to cancel the deletion with {@link #cancel(ScheduledFuture)}
+	 */
+	@Nonnull
+	public static ScheduledFuture<?> schedule(@Nonnull Message message, long seconds,
+			@Nullable Runnable beforeDeletion) {
+		return scheduler.schedule(() -> {
+			if (beforeDeletion != null)
+				beforeDeletion.run();
+			addToBatch(message); // delete the Message after X sec
+		}, seconds, TimeUnit.SECONDS);
+	}
+	
+	/**
+	 * Adds a due Message to the batch of its Channel and starts the batch window if it is the
+	 * first Message of the batch
+	 *
+	 * @param message The due Message
+	 */
+	private static void addToBatch(@Nonnull Message message) {
+		long channelId = message.getChannel().getIdLong();
+		List<Message> batch = dueMessages.get(channelId);
+		if (batch == null) {
+			batch = new ArrayList<>();
+			dueMessages.put(channelId, batch);
+			scheduler.schedule(() -> deleteBatch(channelId), BATCH_WINDOW, TimeUnit.MILLISECONDS);
+		}
+		batch.add(message);
+		batchedMessages.incrementAndGet();
+	}
+	
+	/**
+	 * Deletes all due Messages of a Channel. Uses bulk deletes when at least two Messages are due
+	 * in a Text Channel, single deletes otherwise
+	 *
+	 * @param channelId The ID of the Channel
+	 */
+	private static void deleteBatch(long channelId) {
+		List<Message> batch = dueMessages.remove(channelId);
+		if (batch == null) return;
+		batchedMessages.addAndGet(-batch.size());
+		Message first = batch.get(0);
+		if (batch.size() < 2 || !first.isFromType(ChannelType.TEXT)
+				|| !canBulkDelete(first.getTextChannel())) {
+			batch.forEach(DelayedDeletions::delete);
+			return;
+		}
+		TextChannel channel = first.getTextChannel();
+		for (int i = 0; i < batch.size(); i += MAX_BULK_SIZE) {
+			List<Message> chunk = batch.subList(i, Math.min(i + MAX_BULK_SIZE, batch.size()));
+			if (chunk.size() == 1) { // bulk delete needs at least two Messages
+				delete(chunk.get(0));
+				continue;
+			}
+			List<String> ids = chunk.stream().map(Message::getId).collect(Collectors.toList());
+			try {
+				channel.deleteMessagesByIds(ids).queue(unused -> {
+					bulkDeletions.incrementAndGet();
+					deletedMessages.addAndGet(chunk.size());
+				}, throwable -> { // a Message may be deleted already, delete them one by one
+					logger.debug("Bulk delete failed, deleting the Messages one by one");
+					chunk.forEach(DelayedDeletions::delete);
+				});
+			} catch (RejectedExecutionException ignored) { // JDA is shutting down
+			}
+		}
+	}
+	
+	/**
+	 * Checks if the Bot is allowed to use bulk deletes in that Channel
+	 *
+	 * @param channel The Text Channel
+	 *
+	 * @return {@code true} if the Bot has the Manage Messages Permission in that Channel
+	 */
+	private static boolean canBulkDelete(@Nonnull TextChannel channel) {
+		return channel.getGuild().getSelfMember().hasPermission(channel, Permission.MESSAGE_MANAGE);
+	}
+	
+	/**
+	 * Deletes one Message
+	 *
+	 * @param message The Message to delete
+	 */
+	private static void delete(@Nonnull Message message) {
+		try {
+			message.delete()
+					.queue(unused -> deletedMessages.incrementAndGet(),
+							new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
+		} catch (RejectedExecutionException ignored) { // JDA is shutting down
+		}
+	}
+	
+	/**
+	 * Cancels a pending deletion, for example because the Message was already deleted
+	 *
+	 * @param handle The handle returned by {@link #schedule}, can be null
+	 */
+	public static void cancel(@Nullable ScheduledFuture<?> handle) {
+		if (handle != null && handle.cancel(false)) {
+			cancelledDeletions.incrementAndGet();
+			logger.debug("Cancelled a pending deletion, " + getPendingDeletions() + " pending");
+		}
+	}
+	
+	/**
+	 * Returns the amount of Messages that are waiting to be deleted
+	 *
+	 * @return The amount of pending deletions
+	 */
+	public static int getPendingDeletions() {
+		// the queue also holds one task per batch that is waiting for its window to close
+		return scheduler.getQueue().size() - dueMessages.size() + batchedMessages.get();
+	}
+	
+	/**
+	 * Returns the amount of Messages deleted by this Service
+	 *
+	 * @return The amount of deleted Messages
+	 */
+	public static long getDeletedMessages() {
+		return deletedMessages.get();
+	}
+	
+	/**
+	 * Returns the amount of deletions that were cancelled before they were due
+	 *
+	 * @return The amount of cancelled deletions
+	 */
+	public static long getCancelledDeletions() {
+		return cancelledDeletions.get();
+	}
+	
+	/**
+	 * Returns the amount of bulk deletes that replaced single deletes
+	 *
+	 * @return The amount of bulk deletes
+	 */
+	public static long getBulkDeletions() {
+		return bulkDeletions.get();
+	}
+	
+}
@@ -0,0 +1,81 @@
+package bot;
+
+import java.lang.reflect.Method;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.dv8tion.jda.api.JDA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closes the gateway connection of the JDA so that it reconnects and resumes the session.
+ * <p>
+ * JDA 4.2 has no public API for this, only the internal WebSocketClient of the JDAImpl can be
+ * closed. The methods are resolved through reflection so that only this class depends on the
+ * internals of the JDA. The test of this class checks them against the JDA version of the build
+ * and {@link #isSupported(JDA)} is checked at every startup
+ */
+class GatewayReconnect {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Gateway Reconnect");
+	/**
+	 * Close code for the soft restart, Discord lets the Bot resume the session after it
+	 */
+	private static final int CLOSE_CODE = 4000;
+	
+	/**
+	 * Resolves the methods that close the gateway
+	 *
+	 * @param jdaClass The class of the JDA Instance
+	 *
+	 * @return {@code {getClient, close(int)}} or {@code null} if the JDA doesn't have them
+	 */
+	@Nullable
+	static Method[] resolve(@Nonnull Class<?> jdaClass) {
+		try {
+			Method getClient = jdaClass.getMethod("getClient");
+			Method close = getClient.getReturnType().getMethod("close", int.class);
+			return new Method[]{getClient, close};
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Checks if the gateway of the JDA can be closed for a soft restart
+	 *
+	 * @param jda The JDA Instance
+	 *
+	 * @return {@code false} if every soft restart will be a hard restart
+	 */
+	static boolean isSupported(@Nonnull JDA jda) {
+		return resolve(jda.getClass()) != null;
+	}
+	
+	/**
+	 * Closes the gateway connection with a close code that lets the JDA reconnect and resume the
+	 * session
+	 *
+	 * @param jda The JDA Instance
+	 *
+	 * @return {@code false} if the gateway could not be closed and a hard restart is needed
+	 */
+	static boolean close(@Nonnull JDA jda) {
+		Method[] methods = resolve(jda.getClass());
+		if (methods == null) {
+			logger.warn("The JDA has no method to close the gateway");
+			return false;
+		}
+		try {
+			methods[1].invoke(methods[0].invoke(jda), CLOSE_CODE);
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.warn("Could not close the gateway", e);
+			return false;
+		}
+	}
+	
+}
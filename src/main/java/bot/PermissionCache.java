@@ -0,0 +1,128 @@
+package bot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+
+/**
+ * Caches the special Roles of the Members of the setup Guild as bit flags, so that the Roles don't
+ * need to be resolved for every Command.
+ * <p>
+ * The entry of a Member is invalidated when a Role is added or removed and the whole cache is
+ * cleared when a Role is deleted or the Config is reloaded
+ */
+public class PermissionCache {
+	
+	/**
+	 * Flag if the User is an Admin, the Owner is always an Admin
+	 */
+	public static final int ADMIN = 1;
+	/**
+	 * Flag if the User is an Event Organizer
+	 */
+	public static final int EVENT_ORGANIZER = 1 << 1;
+	/**
+	 * Flag if the User is an Instructor
+	 */
+	public static final int INSTRUCTOR = 1 << 2;
+	/**
+	 * Flag if the User is the Owner of the Bot
+	 */
+	public static final int OWNER = 1 << 3;
+	/**
+	 * The Permission flags mapped to the User ID, only for Members of the setup Guild
+	 */
+	private static final Map<Long, Integer> permissions = new ConcurrentHashMap<>();
+	
+	/**
+	 * Returns the Permission flags of a User
+	 *
+	 * @param jda The JDA to get the setup Guild if the Message was not send in a Guild
+	 * @param user The User
+	 * @param guild The Guild where the Message was send, {@code null} if it was a private
+	 * 		Message
+	 *
+	 * @return The Permission flags, combine with {@link #ADMIN}, {@link #EVENT_ORGANIZER},
+	 *        {@link #INSTRUCTOR} and {@link #OWNER}
+	 */
+	public static int getPermissions(@Nonnull JDA jda, @Nonnull User user, @Nullable Guild guild) {
+		long setupGuild = BotMain.getRole("Guild");
+		if (guild == null)
+			guild = jda.getGuildById(setupGuild);
+		if (guild == null || guild.getIdLong() != setupGuild) // only the setup Guild is cached
+			return computePermissions(user, guild);
+		Integer cached = permissions.get(user.getIdLong());
+		if (cached != null)
+			return cached;
+		int flags = computePermissions(user, guild);
+		if (guild.getMember(user) != null) // don't cache Users that are not Members (yet)
+			permissions.put(user.getIdLong(), flags);
+		return flags;
+	}
+	
+	/**
+	 * Checks if the Permission flags contain a specific flag
+	 *
+	 * @param permissions The Permission flags of a User
+	 * @param flag The flag to check
+	 *
+	 * @return {@code true} if the flag is set
+	 */
+	public static boolean has(int permissions, int flag) {
+		return (permissions & flag) != 0;
+	}
+	
+	/**
+	 * Resolves the Roles of the User in the Guild to Permission flags
+	 *
+	 * @param user The User
+	 * @param guild The Guild to check the Roles in, can be null
+	 *
+	 * @return The Permission flags
+	 */
+	private static int computePermissions(@Nonnull User user, @Nullable Guild guild) {
+		Map<String, Long> roles = BotMain.getConfig().roles; // all Roles from the same Config
+		int flags = 0;
+		Member member = guild == null ? null : guild.getMember(user);
+		if (member != null) {
+			Long adminRole = roles.get("Admin");
+			Long eventOrganizerRole = roles.get("Event_Organizer");
+			Long instructorRole = roles.get("Instructor");
+			for (Role role : member.getRoles()) {
+				long roleId = role.getIdLong();
+				if (adminRole != null && roleId == adminRole)
+					flags |= ADMIN;
+				if (eventOrganizerRole != null && roleId == eventOrganizerRole)
+					flags |= EVENT_ORGANIZER;
+				if (instructorRole != null && roleId == instructorRole)
+					flags |= INSTRUCTOR;
+			}
+		}
+		if (user.getIdLong() == roles.get("Owner"))
+			flags |= OWNER | ADMIN; // Owner is also admin
+		return flags;
+	}
+	
+	/**
+	 * Removes the cached Permission flags of a User, for example because the Roles changed
+	 *
+	 * @param userId The ID of the User
+	 */
+	public static void invalidate(long userId) {
+		permissions.remove(userId);
+	}
+	
+	/**
+	 * Removes all cached Permission flags
+	 */
+	public static void clear() {
+		permissions.clear();
+	}
+	
+}
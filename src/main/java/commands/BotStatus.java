@@ -1,10 +1,19 @@
 package commands;
 
+import bot.BotEvents;
 import bot.BotMain;
+import bot.CommandExecutor;
+import bot.DelayedDeletions;
+import commands.event.EventInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import telegram.TelegramBots;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.TextChannel;
+import xml.StateStore;
 
 public class BotStatus {
 	
@@ -16,38 +25,66 @@ public class BotStatus {
 	/**
 	 * Will restart the bot Connection
 	 *
-	 * @param isAdmin If the User is an Admin
 	 * @param channel The Channel where the Message was send.
+	 * @param arguments {@code hard} to rebuild the whole Bot, otherwise only the connection is
+	 * 		restarted
 	 */
-	public static void restartBot(boolean isAdmin, MessageChannel channel) {
-		if (isAdmin) { // only Admin is allowed to restart the Bot
-			BotMain.restartIDs[0] = channel.getIdLong(); // save the channel ID for later
-			logger.warn("Restarting Bot");
-			channel.sendMessage("restarting Bot").queue(message -> {
-				synchronized (BotMain.lock) {
-					BotMain.restartIDs[1] = message.getIdLong(); // save the message ID for later
-					BotMain.lock
-							.notify(); // notify another Thread that the Bot can be restarted now
-				}
-			});
-			BotMain.restartBot(); // restart Bot
-		} else // User isn't an Admin
-			channel.sendMessage("You don't have permission for this command").queue();
+	public static void restartBot(MessageChannel channel, String arguments) {
+		boolean hard = arguments.equalsIgnoreCase("hard");
+		long channelId = channel.getIdLong(); // save the channel ID for later
+		logger.warn(hard ? "Hard restarting Bot" : "Restarting Bot");
+		CompletableFuture<Message> notice = channel.sendMessage("restarting Bot").submit();
+		BotMain.restartBot(hard) // restart Bot
+				.thenCombine(notice, (jda, message) -> {
+					TextChannel restartChannel = jda.getTextChannelById(channelId);
+					if (restartChannel != null)
+						restartChannel.editMessageById(message.getIdLong(),
+								"Bot successfully restarted").queue();
+					return null;
+				}).exceptionally(throwable -> {
+					logger.error("Bot restart did not complete", throwable);
+					return null;
+				});
+	}
+	
+	/**
+	 * Will send the statistics of the Bot
+	 *
+	 * @param channel The Channel where the Message was send.
+	 */
+	public static void showStatus(MessageChannel channel) {
+		logger.info("Sending Bot status");
+		StringBuilder status = new StringBuilder();
+		status.append(String.format(Locale.ROOT,
+				"**Commands:** %d executed, %d rejected, %d waiting, %.1f ms wait, %.1f ms run%n",
+				CommandExecutor.getExecutedTasks(), CommandExecutor.getRejectedTasks(),
+				CommandExecutor.getQueueDepth(), CommandExecutor.getAverageWaitTime(),
+				CommandExecutor.getAverageRunTime()));
+		status.append(String.format(Locale.ROOT,
+				"**State Store:** %d writes, %d coalesced, %d waiting, %.1f ms per write%n",
+				StateStore.getFlushes(), StateStore.getCoalescedWrites(),
+				StateStore.getQueueDepth(), StateStore.getAverageFlushTime()));
+		status.append(String.format(Locale.ROOT,
+				"**Delayed Deletions:** %d pending, %d deleted, %d cancelled, %d bulk deletes%n",
+				DelayedDeletions.getPendingDeletions(), DelayedDeletions.getDeletedMessages(),
+				DelayedDeletions.getCancelledDeletions(), DelayedDeletions.getBulkDeletions()));
+		status.append(String.format(Locale.ROOT, "**Event Embeds:** %d unchanged edits skipped%n",
+				EventInstance.getSuppressedEdits()));
+		status.append(String.format(Locale.ROOT,
+				"**Reactions:** %d Messages retrieved, %d ignored without retrieving%n",
+				BotEvents.getRetrievedReactionMessages(), BotEvents.getSkippedReactionMessages()));
+		channel.sendMessage(status.toString()).queue();
 	}
 	
 	/**
 	 * Will Stop the Bot
 	 *
-	 * @param isOwner If the User is the Owner of the Bot
 	 * @param channel The Channel where the Message was send.
 	 */
-	public static void stopBot(boolean isOwner, MessageChannel channel) {
-		if (isOwner) { // only the Owner is allowed to stop the Bot
-			logger.warn("Stopping Bot");
-			channel.sendMessage("stopping the Bot. Bye...").queue();
-			BotMain.disconnectBot(); // stop the Bot
-			TelegramBots.closeBots();
-		} else // User isn't the Owner
-			channel.sendMessage("You don't have permission for this command").queue();
+	public static void stopBot(MessageChannel channel) {
+		logger.warn("Stopping Bot");
+		channel.sendMessage("stopping the Bot. Bye...").queue();
+		BotMain.disconnectBot(); // stop the Bot
+		TelegramBots.closeBots();
 	}
 }
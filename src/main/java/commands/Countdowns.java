@@ -5,24 +5,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
-import java.util.Stack;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
-import xml.XMLParser;
+import net.dv8tion.jda.api.exceptions.ErrorHandler;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import xml.StateStore;
 
 public class Countdowns {
 	
 	/**
-	 * Stack of all the Ids of the Countdown messages
+	 * All the running Countdowns, mapped to the ID of their Message
 	 */
-	public static final Stack<String> messageIds = new Stack<>();
+	private static final Map<Long, Countdown> countdowns = new ConcurrentHashMap<>();
 	/**
-	 * Stack of all the Countdown Threads
+	 * The single Thread that does the edits of all Countdown Messages
 	 */
-	private static final Stack<CountdownsThread> countdowns = new Stack<>();
+	private static final ScheduledExecutorService scheduler = Executors
+			.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Countdowns");
+				thread.setDaemon(true);
+				return thread;
+			});
 	/**
 	 * The Logger for Log Messages
 	 */
@@ -35,16 +48,10 @@ public class Countdowns {
 	/**
 	 * Will add a new countdown to the List
 	 *
-	 * @param isEventOrganizer If this User is an Event Organizer
-	 * @param isOwner If the User is the Owner of the Bot
 	 * @param event Event to get more information
 	 */
-	public static void countdownCommand(boolean isEventOrganizer, boolean isOwner,
-			MessageReceivedEvent event) {
-		if (isEventOrganizer || isOwner) // Countdown can only be done by Event Organizer or Owner
-			startNewCountdown(event, event.getChannel());
-		else // isn't Event Organizer or Owner
-			event.getChannel().sendMessage("You don't have permission for this command").queue();
+	public static void countdownCommand(MessageReceivedEvent event) {
+		startNewCountdown(event, event.getChannel());
 	}
 	
 	/**
@@ -81,11 +88,9 @@ public class Countdowns {
 				logger.warn("User tried making a countdown in the past");
 				return;
 			}
-			logger.info("Starting countdown thread");
-			// start the Thread that changes the Message to the current Countdown
-			CountdownsThread countdownsThread = new CountdownsThread(channel, text, date);
-			countdownsThread.start();
-			countdowns.push(countdownsThread);
+			logger.info("Starting countdown");
+			// send the Message, it will then be changed to the current Countdown by the scheduler
+			new Countdown(channel, text, date);
 		} catch (NumberFormatException | StringIndexOutOfBoundsException ignored) { // The command had some parsing error
 			channel.sendMessage("Something went wrong with your command try again\n" +
 					"Format is: `!countdown DD.MM.YYYY HH:mm <additional Text>`").queue();
@@ -93,77 +98,91 @@ public class Countdowns {
 	}
 	
 	/**
-	 * Restarts the Countdowns that are in the Countdowns.cfg file
+	 * Restarts the Countdowns that are in the State Store. The Messages are not retrieved, a
+	 * deleted Message is detected when the first edit of the Countdown fails and a Countdown in
+	 * the past is finished by its first edit
 	 *
-	 * @param jda The JDA to get the Channels and Messages
+	 * @param jda The JDA to get the Channels
 	 */
 	public static void restartCountdowns(JDA jda) {
-		XMLParser.getCountdowns().forEach(countdownInfos -> {
+		long start = System.nanoTime();
+		int restored = 0;
+		for (String[] countdownInfos : StateStore.getCountdowns()) {
+			long messageId = Long.parseLong(countdownInfos[1]);
 			// Pick up the channel where the Message is
 			TextChannel channel = jda.getTextChannelById(countdownInfos[0]);
-			if (channel
-					!= null) { // check if the Channel is still there, if not ignore this Countdown
-				channel.retrieveMessageById(countdownInfos[1])
-						.queue(message -> { // message still exists
-							Instant date = Instant.parse(countdownInfos[3]);
-							if (date.getEpochSecond() < Instant.now()
-									.getEpochSecond()) { // check if the Countdown is in the past
-								message.editMessage("Countdown finished").queue();
-								BotEvents.addTrashcan(
-										message); // add a reaction to make it easy to delete the post
-							} else {
-								logger.info("Added Countdown Thread from existing Countdown");
-								CountdownsThread countdownsThread =
-										new CountdownsThread(channel, countdownInfos[1],
-												countdownInfos[2], date);
-								countdownsThread.start();
-								countdowns.push(countdownsThread);
-							}
-						}, throwable -> logger
-								.warn("Removing one Countdown where Message is deleted")); // If the message is deleted
-			} else {
+			if (channel == null) { // check if the Channel is still there, if not remove it
 				logger.warn("Removing one Countdown where Channel is deleted");
+				StateStore.removeCountdown(messageId);
+				continue;
 			}
-		});
+			try {
+				new Countdown(channel, messageId, countdownInfos[2],
+						Instant.parse(countdownInfos[3]));
+				restored++;
+			} catch (DateTimeParseException e) {
+				logger.warn("Removing one Countdown with an invalid Date: " + countdownInfos[3]);
+				StateStore.removeCountdown(messageId);
+			}
+		}
+		logger.info("Restored " + restored + " Countdowns in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
 	}
 	
 	/**
-	 * Save all active Countdowns in the Countdowns.cfg
+	 * Close a specific Countdown with its Message ID
+	 *
+	 * @param messageId The Message ID of the Countdown that needs to be closed
 	 */
-	private static void saveAllCountdowns() {
-		XMLParser.saveCountdowns(countdowns);
+	public static void closeSpecificThread(long messageId) {
+		if (stopCountdown(messageId))
+			StateStore.removeCountdown(messageId);
 	}
 	
 	/**
-	 * Close a specific Countdown with its Message ID
+	 * Stops a specific Countdown without removing it from the State Store, package-private for the
+	 * tests
 	 *
-	 * @param messageId The Message ID of the Countdown that needs to be closed
+	 * @param messageId The Message ID of the Countdown that needs to be stopped
+	 *
+	 * @return {@code true} if this call stopped the Countdown, {@code false} if there was none
+	 */
+	static boolean stopCountdown(long messageId) {
+		Countdown countdown = countdowns.remove(messageId);
+		if (countdown == null) return false;
+		countdown.cancel();
+		return true;
+	}
+	
+	/**
+	 * Checks if the Message is the Message of a running Countdown
+	 *
+	 * @param messageId The Message ID to check
+	 *
+	 * @return {@code true} if a Countdown is using this Message
 	 */
-	public static void closeSpecificThread(String messageId) {
-		int index = messageIds.indexOf(messageId);
-		if (index == -1) return;
-		CountdownsThread thread = countdowns.get(index);
-		thread.interrupt();
-		countdowns.remove(index);
-		messageIds.remove(index);
-		saveAllCountdowns();
+	public static boolean isCountdown(long messageId) {
+		return countdowns.containsKey(messageId);
 	}
 	
 	/**
-	 * Close all Thread and save them in Countdowns.cfg
+	 * Stop all Countdowns and save them in the State Store
 	 */
 	public static void closeAllThreads() {
-		saveAllCountdowns();
-		countdowns.forEach(Thread::interrupt);
+		StateStore.replaceCountdowns(
+				countdowns.values().stream().map(Countdown::getInfos).collect(Collectors.toList()));
+		countdowns.values().forEach(Countdown::cancel);
+		countdowns.clear();
 	}
 	
 	/**
-	 * Thread Class for the Countdowns
+	 * One running Countdown. It does not own a Thread, every edit of the Countdown Message is
+	 * scheduled as a task on the shared {@link #scheduler}
 	 */
-	public static class CountdownsThread extends Thread {
+	public static class Countdown {
 		
 		/**
-		 * Lock for {@link #stop}
+		 * Lock for {@link #stop} and {@link #nextUpdate}
 		 */
 		private final Object lock = new Object();
 		/**
@@ -179,29 +198,33 @@ public class Countdowns {
 		 */
 		private final Instant date;
 		/**
-		 * boolean to know if the Thread should be closed
+		 * boolean to know if the Countdown should not be updated anymore
 		 */
 		private boolean stop = false;
+		/**
+		 * The next scheduled edit of the Countdown Message
+		 */
+		private ScheduledFuture<?> nextUpdate;
 		/**
 		 * The Message ID of the Countdown
 		 */
-		private String messageId;
+		private long messageId;
 		
 		/**
-		 * Constructor when the Countdown is restored after a restart
+		 * Constructor when the Countdown is restored after a restart, package-private for the tests
 		 *
 		 * @param channel The Channel where the Message of the Countdown is
 		 * @param messageId The Message ID of the Countdown
 		 * @param text The Text that is added at the end of the Countdown
 		 * @param date The Date of the End of the Countdown
 		 */
-		private CountdownsThread(MessageChannel channel, String messageId, String text,
-				Instant date) {
+		Countdown(MessageChannel channel, long messageId, String text, Instant date) {
 			this.text = text;
 			this.date = date;
 			this.channel = channel;
 			this.messageId = messageId;
-			messageIds.push(this.messageId);
+			countdowns.put(messageId, this);
+			schedule(0);
 		}
 		
 		/**
@@ -211,19 +234,18 @@ public class Countdowns {
 		 * @param text The Text that is added at the end of the Countdown
 		 * @param date The Date of the End of the Countdown
 		 */
-		private CountdownsThread(MessageChannel channel, String text, Instant date) {
+		private Countdown(MessageChannel channel, String text, Instant date) {
 			this.text = text;
 			this.date = date;
 			this.channel = channel;
 			
 			logger.info("sending message");
 			channel.sendMessage(computeLeftTime()[0] + " " + text).queue(message -> {
-				synchronized (lock) {
-					this.messageId = message.getId();
-					messageIds.push(this.messageId);
-					saveAllCountdowns(); // save the countdown in the event of unexpected failure
-					lock.notify(); // notify the Thread that the Message Id is available
-				}
+				this.messageId = message.getIdLong();
+				countdowns.put(messageId, this);
+				StateStore.putCountdown(
+						getInfos()); // save the countdown in the event of unexpected failure
+				schedule(0); // the Message Id is available, start updating the Countdown
 			});
 		}
 		
@@ -233,55 +255,59 @@ public class Countdowns {
 		 * @return A String Array with following layout: {@code {channelId, messageId, text, date}}
 		 */
 		public String[] getInfos() {
-			return new String[]{channel.getId(), messageId, text, date.toString()};
+			return new String[]{channel.getId(), Long.toString(messageId), text, date.toString()};
 		}
 		
 		/**
-		 * The main Function of this Thread
+		 * Schedule the next edit of the Countdown Message
+		 *
+		 * @param delay The delay in milliseconds until the next edit
 		 */
-		@Override
-		public void run() {
+		private void schedule(long delay) {
 			synchronized (lock) {
-				if (messageId == null) { // If don't yet have a message ID wait for it
-					try {
-						lock.wait();
-					} catch (InterruptedException ignored) {
-					}
-				}
+				if (!stop)
+					nextUpdate = scheduler.schedule(this::update, delay, TimeUnit.MILLISECONDS);
 			}
-			while (!stop) { // don't stop until wanted
-				Object[] info = computeLeftTime();
-				if (info[0] instanceof Boolean) { // if this countdown is at it's end
-					logger.info("Countdown finished removing it from the Threads List");
-					channel.editMessageById(messageId, "Countdown finished")
-							.queue(BotEvents::addTrashcan,
-									// add a reaction to make it easy to delete the post
-									throwable -> logger
-											.warn("Removing one Countdown where Message is deleted")); // Message was deleted, don't do anything here
-					countdowns.remove(this);
-					return;
-				}
-				logger.info("editing message: " + info[0]);
-				channel.editMessageById(messageId, info[0] + " " + text)
-						.queue(message -> {}, throwable -> {
-							// Message was deleted, delete this Thread
-							stop = true;
-							countdowns.remove(this);
-							logger.warn("Removing one Countdown where Message is deleted");
-						});
-				try {
-					long sleepTime = (Long) info[1]; // sleep until the next change
-					//noinspection BusyWait
-					sleep(sleepTime < 5000 ? 60000 : sleepTime);
-				} catch (InterruptedException ignored) {
-				}
+		}
+		
+		/**
+		 * Edits the Countdown Message and schedules the next edit
+		 */
+		private void update() {
+			Object[] info = computeLeftTime();
+			if (info[0] instanceof Boolean) { // if this countdown is at it's end
+				logger.info("Countdown finished removing it from the Countdowns List");
+				channel.editMessageById(messageId, "Countdown finished")
+						.queue(BotEvents::addTrashcan,
+								// add a reaction to make it easy to delete the post
+								throwable -> logger
+										.warn("Removing one Countdown where Message is deleted")); // Message was deleted, don't do anything here
+				countdowns.remove(messageId, this);
+				StateStore.removeCountdown(messageId);
+				return;
 			}
+			logger.info("editing message: " + info[0]);
+			channel.editMessageById(messageId, info[0] + " " + text).queue(message -> {},
+					new ErrorHandler().handle(ErrorResponse.UNKNOWN_MESSAGE, e -> {
+						// Message was deleted, remove this Countdown
+						cancel();
+						countdowns.remove(messageId, this);
+						StateStore.removeCountdown(messageId);
+						logger.warn("Removing one Countdown where Message is deleted");
+					}));
+			long sleepTime = (Long) info[1]; // wait until the next change
+			schedule(sleepTime < 5000 ? 60000 : sleepTime);
 		}
 		
-		@Override
-		public void interrupt() {
-			stop = true;
-			super.interrupt();
+		/**
+		 * Stops this Countdown, the Message will not be edited anymore
+		 */
+		private void cancel() {
+			synchronized (lock) {
+				stop = true;
+				if (nextUpdate != null)
+					nextUpdate.cancel(false);
+			}
 		}
 		
 		/**
@@ -2,15 +2,17 @@ package commands;
 
 import bot.BotEvents;
 import bot.BotMain;
+import bot.DelayedDeletions;
+import commands.event.EventActors;
+import commands.event.EventGroup;
 import commands.event.EventInstance;
 import commands.event.Location;
+import commands.event.MessageIndex;
 import emoji.Emoji;
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import javax.annotation.Nonnull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
@@ -24,7 +26,7 @@ import net.dv8tion.jda.api.exceptions.ErrorHandler;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import xml.XMLParser;
+import xml.StateStore;
 
 public class Event {
 	
@@ -32,10 +34,9 @@ public class Event {
 	 * A Map of all Events in the system, mapped to the author ID. And with the current active
 	 * Event.
 	 * <p>
-	 * The Array List has following layout: {@code [index_Active, EventInstance, EventInstance,
-	 * ...]}
+	 * The group of an author is only changed in the mailbox of the author in {@link EventActors}
 	 */
-	private static final HashMap<Long, List<Object>> eventsMap = new HashMap<>();
+	private static final Map<Long, EventGroup> eventsMap = new ConcurrentHashMap<>();
 	
 	/**
 	 * The Logger for Log Messages
@@ -45,102 +46,106 @@ public class Event {
 	/**
 	 * Hashmap with all active Messages to choose a Event.
 	 * <p>
-	 * The Object array has following setup: {@code [Message, userID]}
+	 * The Object array has following setup: {@code [Message, User, deletion handle]}
 	 */
-	private static final HashMap<Long, Object[]> messages = new HashMap<>();
+	private static final Map<Long, Object[]> messages = new ConcurrentHashMap<>();
 	
 	/**
 	 * Will get to the correct Event Command
 	 *
-	 * @param isEventOrganizer If this User is an Event Organizer
-	 * @param isOwner If the User is the Owner of the Bot
 	 * @param event Event to get more information
-	 * @param content The Content of the Message that was send.
+	 * @param content The arguments of the Command
 	 */
-	public static void eventCommand(boolean isEventOrganizer, boolean isOwner,
-			@Nonnull MessageReceivedEvent event, String content) {
-		if (isEventOrganizer || isOwner) { // only event organizer or Owner are allowed
-			if (content.length() == 5 || content.substring(6).equals("help")) { // print help page
-				Help.sendEventHelpPage(event.getChannel());
-			} else {
-				content = content.substring(6); // remove the "event " portion
-				String command;
-				if (content.indexOf(' ') != -1)
-					command = content.substring(0, content.indexOf(' '));
+	public static void eventCommand(@Nonnull MessageReceivedEvent event, String content) {
+		if (content.isEmpty() || content.equals("help")) { // print help page
+			Help.sendEventHelpPage(event.getChannel());
+		} else { // everything else changes the Events of the User
+			EventActors.tell(event.getAuthor().getIdLong(),
+					() -> runEventCommand(event, content));
+		}
+	}
+	
+	/**
+	 * Runs an Event Command, must only be called from the mailbox of the User in
+	 * {@link EventActors}
+	 *
+	 * @param event Event to get more information
+	 * @param content The arguments of the Command
+	 */
+	private static void runEventCommand(@Nonnull MessageReceivedEvent event,
+			@Nonnull String content) {
+		String command;
+		if (content.indexOf(' ') != -1)
+			command = content.substring(0, content.indexOf(' '));
+		else
+			command = content;
+		switch (content) {
+			case "create" -> { // create a new event
+				if (event.isFromGuild())
+					createEvent(event);
 				else
-					command = content;
-				switch (content) {
-					case "create" -> { // create a new event
-						if (event.isFromGuild())
-							createEvent(event);
-						else
-							event.getChannel().sendMessage(
-									"You need to start the event from the channel where the event Text should be displayed")
-									.queue();
-					}
-					case "delete" -> {  //delete the event
-						if (eventsMap.containsKey(event.getAuthor().getIdLong())) {
-							List<Object> list = eventsMap.get(event.getAuthor().getIdLong());
-							int index = (int) list.get(0);
-							((EventInstance) list.get(index)).deleteEvent();
-							list.remove(index);
-							if (list.size() == 1) {
-								eventsMap.remove(event.getAuthor().getIdLong());
-							} else if (index == list.size())
-								list.set(0, list.size() - 1);
-							logger.info("Deleting Event");
-						} else
-							event.getChannel().sendMessage("You don't have an event setup").queue();
-					}
-					case "switch" -> { // switch between events
-						if (eventsMap.containsKey(event.getAuthor().getIdLong())) {
-							printSwitchEmbed(event, eventsMap.get(event.getAuthor().getIdLong()));
-						} else
-							event.getChannel().sendMessage("You don't have any event setup")
-									.queue();
-					}
-					default -> { // event command, is handled by event Instance
-						if (eventsMap.containsKey(event.getAuthor().getIdLong())) {
-							List<Object> list = eventsMap.get(event.getAuthor().getIdLong());
-							int index = (int) list.get(0);
-							((EventInstance) list.get(index)).update(event, command);
-						} else {
-							event.getChannel().sendMessage("You have to create an event first")
-									.queue();
-						}
-						if (!event.getChannelType().equals(ChannelType.PRIVATE)) {
-							BotEvents.deleteMessageAfterXTime(event.getMessage(), 5);
-						}
-					}
+					event.getChannel().sendMessage(
+							"You need to start the event from the channel where the event Text should be displayed")
+							.queue();
+			}
+			case "delete" -> {  //delete the event
+				EventGroup group = eventsMap.get(event.getAuthor().getIdLong());
+				if (group != null) {
+					EventInstance eventInstance = group.getActive();
+					eventInstance.deleteEvent();
+					group.remove(eventInstance);
+					if (group.isEmpty())
+						eventsMap.remove(event.getAuthor().getIdLong());
+					logger.info("Deleting Event");
+				} else
+					event.getChannel().sendMessage("You don't have an event setup").queue();
+			}
+			case "switch" -> { // switch between events
+				EventGroup group = eventsMap.get(event.getAuthor().getIdLong());
+				if (group != null) {
+					printSwitchEmbed(event, group);
+				} else
+					event.getChannel().sendMessage("You don't have any event setup")
+							.queue();
+			}
+			default -> { // event command, is handled by event Instance
+				EventGroup group = eventsMap.get(event.getAuthor().getIdLong());
+				if (group != null) {
+					group.getActive().update(event, command);
+				} else {
+					event.getChannel().sendMessage("You have to create an event first")
+							.queue();
+				}
+				if (!event.getChannelType().equals(ChannelType.PRIVATE)) {
+					BotEvents.deleteMessageAfterXTime(event.getMessage(), 5);
 				}
 			}
-		} else // isn't Event Organizer or Owner
-			event.getChannel().sendMessage("You don't have permission for this command").queue();
+		}
 	}
 	
 	/**
 	 * Saves all Events to the Config.xml
 	 */
 	public static void saveEvents() {
-		XMLParser.saveEvents(eventsMap);
+		StateStore.saveEvents(eventsMap);
 	}
 	
 	public static void loadEvents(@Nonnull JDA jda) {
-		eventsMap.putAll(XMLParser.getEvents(jda));
+		eventsMap.putAll(StateStore.getEvents(jda));
 	}
 	
 	/**
 	 * Will print the Embed to choose a
 	 *
 	 * @param event The MessageReceived Event
-	 * @param list The List of Events
+	 * @param group The Events of the User
 	 */
 	private static void printSwitchEmbed(@Nonnull MessageReceivedEvent event,
-			@Nonnull List<Object> list) {
-		if (list.size() == 2) {
+			@Nonnull EventGroup group) {
+		if (group.size() == 1) {
 			event.getChannel().sendMessage("You only have one event setup").queue();
-		} else if (list.size() == 3) {
-			String eventString = ((EventInstance) list.get(((int) list.get(0)) % 2 + 1)).getTitle();
+		} else if (group.size() == 2) {
+			String eventString = group.get((group.getActiveIndex() + 1) % 2).getTitle();
 			event.getChannel()
 					.sendMessage("Switched to the only other Event you have: " + eventString)
 					.queue();
@@ -151,37 +156,25 @@ public class Event {
 			
 			eb.setTitle("Choose your Event:");
 			
-			for (int i = 1; i < list.size(); i++) {
-				eb.addField(
-						Emoji.numbersList.get(i - 1) + " " + ((EventInstance) list.get(i))
-								.getTitle(),
-						((EventInstance) list.get(i)).getDescription(), false);
+			int amount = group.size();
+			for (int i = 0; i < amount; i++) {
+				EventInstance eventInstance = group.get(i);
+				eb.addField(Emoji.numbersList.get(i) + " " + eventInstance.getTitle(),
+						eventInstance.getDescription(), false);
 			}
 			
 			eb.setFooter("This message will be deleted in 60sec");
 			
 			event.getChannel().sendMessage(eb.build()).queue(message -> {
-				for (int i = 1; i < list.size(); i++) {
-					message.addReaction(Emoji.numbersList.get(i - 1)).queue();
+				for (int i = 0; i < amount; i++) {
+					message.addReaction(Emoji.numbersList.get(i)).queue();
 				}
 				
-				messages.put(message.getIdLong(), new Object[]{message, event.getAuthor()});
-				
-				new Thread(() -> {
-					try {
-						Thread.sleep(60 * 1000);
-					} catch (InterruptedException ignored) {
-					}
-					// delete the Message after X sec
-					messages.remove(message.getIdLong());
-					try {
-						message.delete()
-								.queue(unused -> {},
-										new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
-					} catch (RejectedExecutionException ignored) {
-					}
-					
-				}).start();
+				// delete the Message after 60 sec
+				ScheduledFuture<?> deletion = DelayedDeletions.schedule(message, 60,
+						() -> messages.remove(message.getIdLong()));
+				messages.put(message.getIdLong(),
+						new Object[]{message, event.getAuthor(), deletion});
 			});
 		}
 	}
@@ -194,19 +187,23 @@ public class Event {
 	 */
 	private static void createEvent(@Nonnull MessageReceivedEvent event) {
 		event.getMessage().delete().queue();
-		if (!eventsMap.containsKey(event.getAuthor().getIdLong())) {
-			ArrayList<Object> list = new ArrayList<>();
-			list.add(1);
-			list.add(new EventInstance(event));
-			eventsMap.put(event.getAuthor().getIdLong(), list);
-		} else {
-			List<Object> list = eventsMap.get(event.getAuthor().getIdLong());
-			list.add(new EventInstance(event));
-			list.set(0, list.size() - 1);
-		}
+		eventsMap.computeIfAbsent(event.getAuthor().getIdLong(), EventGroup::new)
+				.add(new EventInstance(event));
 		
 	}
 	
+	/**
+	 * Checks if Reactions on this Message could be Event related, without retrieving the Message
+	 *
+	 * @param messageId The ID of the Message
+	 *
+	 * @return {@code true} if the Message is an Event Embed, a position choosing Embed or an
+	 * 		Embed to switch between Events
+	 */
+	public static boolean isEventMessage(long messageId) {
+		return messages.containsKey(messageId) || MessageIndex.contains(messageId);
+	}
+	
 	/**
 	 * Will check if the Reaction was added on a Event related message
 	 *
@@ -227,13 +224,10 @@ public class Event {
 			// reactions to Switch Event Embed are only Emojis
 			if (reactionEmote.isEmoji()) {
 				String emoji = Emoji.getCleanedUpEmoji(reactionEmote.getEmoji());
-				List<Object> list = eventsMap.get(user.getIdLong());
 				// check if reaction is for event switching
-				if (Emoji.numbersList.contains(emoji)
-						&& Emoji.numbersList.indexOf(emoji) < list.size() - 1) {
-					list.set(0, Emoji.numbersList.indexOf(emoji) + 1);
-					message.delete().queue();
-					messages.remove(message.getIdLong());
+				if (Emoji.numbersList.contains(emoji)) {
+					EventActors.tell(user.getIdLong(), () -> switchEvent(message,
+							Emoji.numbersList.indexOf(emoji), user.getIdLong()));
 				}
 			}
 			// remove only the reaction of the user, not all reactions
@@ -242,55 +236,91 @@ public class Event {
 			return true;
 		}
 		
-		Set<Long> keys = eventsMap.keySet();
-		for (Long key : keys) { // check every User ID to find a matching one
-			List<Object> list = eventsMap.get(key);
-			for (int i = 1; i < list.size(); i++) {
-				EventInstance eventInstance = (EventInstance) list.get(i);
-				if (eventInstance.eventEmbedMessage.getIdLong() == message.getIdLong()) {
-					if (reactionEmote
-							.isEmoji()) { // reactions to the main Event Embed are only Emojis
-						String emoji = Emoji.getCleanedUpEmoji(reactionEmote.getEmoji());
-						// check if reaction is for position voting
-						if (emoji.equals(Emoji.COUCH) ||
-								emoji.equals(Emoji.GREY_QUESTION) ||
-								emoji.equals(Emoji.X) ||
-								Emoji.numbersList.contains(emoji)) {
-							eventInstance.assignLocation(channel, emoji, user);
-						} else if (emoji.equals(Emoji.WASTEBASKET)) { // We want to delete the Event
-							boolean isOwner = user.getIdLong() == BotMain.ROLES.get("Owner");
-							// Only event owner and bot Owner should be able to delete an event
-							if (user.getIdLong() == key || isOwner) {
-								eventInstance.deleteEvent();
-								list.remove(i);
-								
-								if (list.size() == 1) {
-									eventsMap.remove(key);
-								} else if ((int) list.get(0) == list.size())
-									list.set(0, list.size() - 1);
-								
-								logger.info("Deleting Event");
-								return true; // don't go further since message is deleted
-							} else {
-								channel.sendMessage("Only the Event creator can delete the event")
-										.queue(message1 -> BotEvents
-												.deleteMessageAfterXTime(message1, 10));
-							}
-						}
-					}
-					// remove only the reaction of the user, not all reactions
-					message.removeReaction(reactionEmote.getAsReactionCode(), user).queue();
-					return true;
-				}
-				// Go through every location and check if a position choosing message is
-				// where the reaction was added
-				for (Location location : eventInstance.locations) {
-					if (location.messages.containsKey(message.getIdLong())) {
-						return location.addUser(reactionEmote, user, message);
-					}
-				}
+		EventInstance eventInstance = MessageIndex.getEventInstance(message.getIdLong());
+		if (eventInstance != null) {
+			EventActors.tell(eventInstance.ownerId, () -> eventEmbedReaction(eventInstance,
+					message, reactionEmote, user, channel));
+			return true;
+		}
+		
+		// check if a position choosing message is where the reaction was added
+		Location location = MessageIndex.getLocation(message.getIdLong());
+		if (location != null) {
+			// decide now if the User is added, only the change itself runs in the mailbox
+			if (!location.acceptsReaction(reactionEmote, user, message.getIdLong())) {
+				message.removeReaction(reactionEmote.getAsReactionCode(), user).queue(unused -> {},
+						new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
+				return false;
 			}
+			EventActors.tell(location.getOwnerId(),
+					() -> location.addUser(reactionEmote, user, message));
+			return true;
 		}
 		return false;
 	}
+	
+	/**
+	 * Switches the active Event of the User and deletes the Embed to switch between Events. Must
+	 * only be called from the mailbox of the User in {@link EventActors}
+	 *
+	 * @param message The Embed to switch between Events
+	 * @param index The index of the chosen Event in the group of the User
+	 * @param userId The ID of the User
+	 */
+	private static void switchEvent(@Nonnull Message message, int index, long userId) {
+		EventGroup group = eventsMap.get(userId);
+		if (group == null || index >= group.size())
+			return;
+		Object[] switchEmbed = messages.remove(message.getIdLong());
+		if (switchEmbed == null) // already switched or expired
+			return;
+		group.setActiveIndex(index);
+		DelayedDeletions.cancel((ScheduledFuture<?>) switchEmbed[2]);
+		message.delete().queue();
+	}
+	
+	/**
+	 * Handles a Reaction on the Event Embed. Must only be called from the mailbox of the Event
+	 * owner in {@link EventActors}
+	 *
+	 * @param eventInstance The Event of the Embed
+	 * @param message The Event Embed
+	 * @param reactionEmote The Reaction that was added
+	 * @param user The User that Reacted
+	 * @param channel The Channel where the Message was send.
+	 */
+	private static void eventEmbedReaction(@Nonnull EventInstance eventInstance,
+			@Nonnull Message message, @Nonnull ReactionEmote reactionEmote, @Nonnull User user,
+			@Nonnull MessageChannel channel) {
+		if (reactionEmote.isEmoji()) { // reactions to the main Event Embed are only Emojis
+			String emoji = Emoji.getCleanedUpEmoji(reactionEmote.getEmoji());
+			// check if reaction is for position voting
+			if (emoji.equals(Emoji.COUCH) ||
+					emoji.equals(Emoji.GREY_QUESTION) ||
+					emoji.equals(Emoji.X) ||
+					Emoji.numbersList.contains(emoji)) {
+				eventInstance.assignLocation(channel, emoji, user);
+			} else if (emoji.equals(Emoji.WASTEBASKET)) { // We want to delete the Event
+				boolean isOwner = user.getIdLong() == BotMain.getRole("Owner");
+				// Only event owner and bot Owner should be able to delete an event
+				if (user.getIdLong() == eventInstance.ownerId || isOwner) {
+					EventGroup group = eventsMap.get(eventInstance.ownerId);
+					if (group == null || !group.remove(eventInstance))
+						return; // the Event was already deleted
+					eventInstance.deleteEvent();
+					
+					if (group.isEmpty())
+						eventsMap.remove(eventInstance.ownerId);
+					
+					logger.info("Deleting Event");
+					return; // don't go further since message is deleted
+				} else {
+					channel.sendMessage("Only the Event creator can delete the event")
+							.queue(message1 -> BotEvents.deleteMessageAfterXTime(message1, 10));
+				}
+			}
+		}
+		// remove only the reaction of the user, not all reactions
+		message.removeReaction(reactionEmote.getAsReactionCode(), user).queue();
+	}
 }
@@ -22,11 +22,11 @@ public class Help {
 	 * @param isEventOrganizer If this User is an Event Organizer
 	 * @param isAdmin If this User is an Admin
 	 * @param channel The Channel where the Command was send
-	 * @param content The Content of the Message that was send.
+	 * @param arguments The arguments of the Command
 	 */
 	public static void showHelp(boolean isInstructor, boolean isEventOrganizer, boolean isAdmin,
-			MessageChannel channel, String content) {
-		if (content.contains("event")) {
+			MessageChannel channel, String arguments) {
+		if (arguments.contains("event")) {
 			if (isEventOrganizer) {
 				sendEventHelpPage(channel);
 			}
@@ -172,7 +172,10 @@ public class Help {
 		eb.addField("Admin Commands", "Commands that are only for admins:",
 				false);
 		
-		eb.addField("`!restart`", "restarts the bot", true);
+		eb.addField("`!restart [hard]`", "restarts the bot connection, `hard` reloads everything",
+				true);
+		
+		eb.addField("`!status`", "shows the statistics of the bot", true);
 		
 		// This Command should not be shown since only the Owner can do it.
 		//eb.addField("!stop", "stops the bot", true);
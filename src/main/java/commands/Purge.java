@@ -28,68 +28,67 @@ public class Purge {
 	/**
 	 * Will purge the given amount of Messages
 	 *
-	 * @param isOwner If the User is the Owner of the Bot
 	 * @param event Event to get more information
-	 * @param content The Content of the Message that was send.
+	 * @param arguments The arguments of the Command, the amount of Messages
+	 *
+	 * @throws NumberFormatException If the amount is not a number
 	 */
-	public static void purgeMessages(boolean isOwner, MessageReceivedEvent event, String content) {
+	public static void purgeMessages(MessageReceivedEvent event, String arguments)
+			throws NumberFormatException {
 		if (!event.isFromGuild()) {
 			event.getChannel().sendMessage("Can't purge if not a Text Channel in a Guild.").queue();
 			return;
 		}
 		TextChannel channel = event.getTextChannel();
-		if (isOwner) { // only the Owner is allowed to purge Messages
-			if (content.length() == 5) {
-				channel.sendMessage("You have to specify how many messages to delete").queue();
+		if (arguments.isEmpty()) {
+			channel.sendMessage("You have to specify how many messages to delete").queue();
+			return;
+		}
+		// add 1 since the command should not count
+		int size = 1 + Integer.parseInt(arguments);
+		logger.info("Purging " + size + " Messages");
+		
+		synchronized (lock) {
+			if (isWorking) {
+				channel.sendMessage("I'm busy right now...")
+						.queue(message -> BotEvents.deleteMessageAfterXTime(message, 10));
 				return;
 			}
-			// add 1 since the command should not count
-			int size = 1 + Integer.parseInt(content.substring(6));
-			logger.info("Purging " + size + " Messages");
-			
+			isWorking = true;
+		}
+		
+		int[] amountArray = new int[]{size};
+		
+		new Thread(() -> {
+			boolean isWorkingTmp;
 			synchronized (lock) {
-				if (isWorking) {
-					channel.sendMessage("I'm busy right now...")
-							.queue(message -> BotEvents.deleteMessageAfterXTime(message, 10));
-					return;
-				}
-				isWorking = true;
+				isWorkingTmp = isWorking;
 			}
-			
-			int[] amountArray = new int[]{size};
-			
-			new Thread(() -> {
-				boolean isWorkingTmp;
-				synchronized (lock) {
-					isWorkingTmp = isWorking;
-				}
-				while (isWorkingTmp) {
-					List<Message> messages = channel.getHistory()
-							.retrievePast(Math.min(amountArray[0], 100)).complete();
-					
-					amountArray[0] -= Math.min(amountArray[0], 100);
-					
-					if (messages.isEmpty())
-						break;
-					
-					channel.purgeMessages(messages).forEach(CompletableFuture::join);
-					
-					if (amountArray[0] == 0)
-						break;
-					
-					synchronized (lock) {
-						isWorkingTmp = isWorking;
-					}
-				}
+			while (isWorkingTmp) {
+				List<Message> messages = channel.getHistory()
+						.retrievePast(Math.min(amountArray[0], 100)).complete();
+				
+				amountArray[0] -= Math.min(amountArray[0], 100);
+				
+				if (messages.isEmpty())
+					break;
+				
+				channel.purgeMessages(messages).forEach(CompletableFuture::join);
+				
+				if (amountArray[0] == 0)
+					break;
 				
 				synchronized (lock) {
-					isWorking = false;
+					isWorkingTmp = isWorking;
 				}
-				channel.sendMessage((size - 1) + " Messages Purged")
-						.queue(BotEvents::addTrashcan);
-				logger.info("Finished purging Messages");
-			}).start();
-		} else // User isn't the Owner
-			channel.sendMessage("You don't have permission for this command").queue();
+			}
+			
+			synchronized (lock) {
+				isWorking = false;
+			}
+			channel.sendMessage((size - 1) + " Messages Purged")
+					.queue(BotEvents::addTrashcan);
+			logger.info("Finished purging Messages");
+		}).start();
 	}
 }
@@ -17,24 +17,15 @@ public class Reload {
 	/**
 	 * Will reload the given Information (can be Config or Timezones)
 	 *
-	 * @param isAdmin the User is an Admin
 	 * @param event Event to get more information
-	 * @param content The Content of the Message that was send.
+	 * @param arguments The arguments of the Command, what to reload
 	 */
-	public static void reloadMain(boolean isAdmin, MessageReceivedEvent event, String content) {
-		if (isAdmin) { // only Admin is allowed to Reload the Config or Timezones
-			if (content.equals("reload")) { // The User did not specify what to reload
-				reloadNotSpecified(event.getChannel());
-			} else {
-				content = content.substring(7);
-				switch (content) {
-					case "config" -> reloadConfig(event.getChannel()); // Reload Config files
-					case "timezones", "timezone" -> reloadTimezones(event); // Reload Timezones
-					default -> reloadNotSpecified(event.getChannel());
-				}
-			}
-		} else // User isn't an Admin
-			event.getChannel().sendMessage("You don't have permission for this command").queue();
+	public static void reloadMain(MessageReceivedEvent event, String arguments) {
+		switch (arguments) {
+			case "config" -> reloadConfig(event.getChannel()); // Reload Config files
+			case "timezones", "timezone" -> reloadTimezones(event); // Reload Timezones
+			default -> reloadNotSpecified(event.getChannel()); // nothing or something unknown
+		}
 	}
 	
 	/**
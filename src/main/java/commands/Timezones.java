@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
@@ -18,7 +19,7 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import xml.XMLParser;
+import xml.StateStore;
 
 public class Timezones {
 	
@@ -32,19 +33,20 @@ public class Timezones {
 	private static final DateTimeFormatter sdf = DateTimeFormatter.ofPattern("EEE HH:mm")
 			.withLocale(Locale.ENGLISH);
 	/**
-	 * Map with all the Timezones of the Users
+	 * Map with all the Timezones of the Users. Concurrent because the Commands read it on the
+	 * Command Workers while a nickname change updates it on the JDA Event Thread
 	 */
-	private static Map<Long, String> timezones = new HashMap<>();
+	private static final Map<Long, String> timezones = new ConcurrentHashMap<>();
 	
 	/**
 	 * Will get the local times of the Users mentioned
 	 *
 	 * @param event Event to get more information
-	 * @param content The Content of the Message that was send.
+	 * @param arguments The arguments of the Command, the mentioned Users
 	 */
-	public static void getTimezoneOfUserCommand(MessageReceivedEvent event, String content) {
-		if (content.length() != 4) { // check if Users are mentioned
-			content = content.substring(5)/*.toLowerCase(Locale.ROOT)*/; // is already LowerCase
+	public static void getTimezoneOfUserCommand(MessageReceivedEvent event, String arguments) {
+		if (!arguments.isEmpty()) { // check if Users are mentioned
+			String content = arguments; // is already LowerCase
 			ArrayList<Long> members = new ArrayList<>();
 			StringBuilder output = new StringBuilder("```\n"); // begin building the output message
 			while (!content.equals("")) { // loop until no member mentioned is left
@@ -94,7 +96,7 @@ public class Timezones {
 	 */
 	public static void getTimezoneOfAllUsersCommand(MessageReceivedEvent event) {
 		Guild guild = event.getJDA().getGuildById(
-				BotMain.ROLES.get("Guild")); // get the Guild where the Bot is deployed
+				BotMain.getRole("Guild")); // get the Guild where the Bot is deployed
 		if (guild != null) {
 			Map<String, ArrayList<String>> timezoneGroups = new HashMap<>(); // Hashmap with all different timezones
 			timezones.forEach((memberID, offset) -> {
@@ -147,9 +149,9 @@ public class Timezones {
 	 *
 	 * @param jda The JDA Instance of the Bot
 	 */
-	static void updateTimezones(JDA jda) { // package-private to be used in Reload.java
+	static synchronized void updateTimezones(JDA jda) { // package-private to be used in Reload.java
 		Guild guild = jda.getGuildById(
-				BotMain.ROLES.get("Guild")); // get the Guild where the Bot is deployed
+				BotMain.getRole("Guild")); // get the Guild where the Bot is deployed
 		if (guild != null) {
 			Map<Long, String> timezonesTemp = new HashMap<>(); // make a new Hashmap that will replace the old one later on
 			List<Member> members = guild.getMembers(); // get all Members on the Guild
@@ -173,7 +175,10 @@ public class Timezones {
 					}
 				}
 			});
-			timezones = timezonesTemp; // replace the old Map by the new one
+			// update the Map in place, synchronized so that no nickname change gets lost
+			timezones.keySet().retainAll(timezonesTemp.keySet());
+			timezones.putAll(timezonesTemp);
+			StateStore.replaceTimezones(timezonesTemp);
 		} else { // The Guild ID given is not a Guild where the Bot is
 			logger.error("Bot is not on the specified Server");
 		}
@@ -188,9 +193,11 @@ public class Timezones {
 	 * @return {@code true} if the update was successful or {@code false} if Timezone was not
 	 * 		correctly parsed
 	 */
-	public static boolean updateSpecificTimezone(long userId, String timezone) {
+	public static synchronized boolean updateSpecificTimezone(long userId, String timezone) {
 		try {
-			timezones.put(userId, getTimezone(timezone)); // try to update the timezone
+			String offset = getTimezone(timezone); // try to update the timezone
+			timezones.put(userId, offset);
+			StateStore.putTimezone(userId, offset);
 		} catch (NumberFormatException ignored) {
 			return false;
 		}
@@ -201,14 +208,15 @@ public class Timezones {
 	 * Save the Timezones in a File for use after restart
 	 */
 	public static void saveTimezones() {
-		XMLParser.saveTimezones(timezones);
+		StateStore.replaceTimezones(timezones);
 	}
 	
 	/**
 	 * Load the Timezones from the File
 	 */
-	public static void loadTimezones() {
-		timezones = XMLParser.getTimezones();
+	public static synchronized void loadTimezones() {
+		timezones.clear();
+		timezones.putAll(StateStore.getTimezones());
 	}
 	
 	/**
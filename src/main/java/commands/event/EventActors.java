@@ -0,0 +1,141 @@
+package commands.event;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes all changes to the Events of one Event owner. Every owner has a mailbox, the changes
+ * in one mailbox run one after the other, mailboxes of different owners run in parallel on a
+ * shared pool of Threads.
+ * <p>
+ * Everything that changes the Events of an owner (Commands of the owner and Reactions of any
+ * User) has to go through {@link #tell(long, Runnable)}
+ */
+public class EventActors {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Event Actors");
+	/**
+	 * Counter to give the Threads of the {@link #pool} a unique name
+	 */
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+	/**
+	 * The Threads that run the mailboxes
+	 */
+	private static final ExecutorService pool = Executors
+			.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+					runnable -> {
+						Thread thread = new Thread(runnable,
+								"Event Actor " + threadCounter.getAndIncrement());
+						thread.setDaemon(true);
+						return thread;
+					});
+	/**
+	 * The mailboxes mapped to the ID of the Event owner
+	 */
+	private static final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+	
+	/**
+	 * Adds a change to the mailbox of the Event owner. It will run after all changes already in
+	 * the mailbox
+	 *
+	 * @param ownerId The ID of the Event owner
+	 * @param change The change to the Events of the owner
+	 */
+	public static void tell(long ownerId, @Nonnull Runnable change) {
+		Mailbox mailbox = mailboxes.computeIfAbsent(ownerId, id -> new Mailbox(ownerId));
+		mailbox.queue.add(change);
+		mailbox.schedule();
+	}
+	
+	/**
+	 * Waits until every mailbox is empty and no change is running anymore, so that the Events can
+	 * be read from another Thread. Nothing new should be told to the mailboxes while waiting
+	 *
+	 * @param timeout The maximum time to wait in milliseconds
+	 *
+	 * @return {@code false} if a mailbox was still busy after the timeout
+	 */
+	public static boolean awaitIdle(long timeout) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		while (mailboxes.values().stream()
+				.anyMatch(mailbox -> mailbox.scheduled.get() || !mailbox.queue.isEmpty())) {
+			if (System.nanoTime() - deadline >= 0)
+				return false;
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * The pending changes of one Event owner
+	 */
+	private static class Mailbox implements Runnable {
+		
+		/**
+		 * The ID of the Event owner
+		 */
+		private final long ownerId;
+		/**
+		 * The pending changes
+		 */
+		private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+		/**
+		 * If the mailbox is already waiting in or running on the {@link #pool}
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		
+		/**
+		 * Creates an empty mailbox
+		 *
+		 * @param ownerId The ID of the Event owner
+		 */
+		private Mailbox(long ownerId) {
+			this.ownerId = ownerId;
+		}
+		
+		/**
+		 * Submits the mailbox to the {@link #pool} if it isn't already
+		 */
+		private void schedule() {
+			if (!queue.isEmpty() && scheduled.compareAndSet(false, true))
+				pool.execute(this);
+		}
+		
+		/**
+		 * Runs all pending changes
+		 */
+		@Override
+		public void run() {
+			Runnable change;
+			while ((change = queue.poll()) != null) {
+				try {
+					change.run();
+				} catch (RuntimeException e) { // don't block the mailbox because of one change
+					logger.error("Change to the Events of " + ownerId + " failed", e);
+				}
+			}
+			scheduled.set(false);
+			schedule(); // a change could have been added after the last poll
+		}
+		
+	}
+	
+}
@@ -0,0 +1,156 @@
+package commands.event;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * All Events of one User, with the Event that is currently active.
+ * <p>
+ * A group is only changed in the mailbox of its owner in {@link EventActors}
+ */
+public class EventGroup {
+	
+	/**
+	 * The ID of the User that created the Events
+	 */
+	public final long ownerId;
+	/**
+	 * The Events, only the first {@link #size} entries are used
+	 */
+	private EventInstance[] events = new EventInstance[2];
+	/**
+	 * Amount of Events in the group
+	 */
+	private int size = 0;
+	/**
+	 * Index of the active Event, -1 if the group is empty
+	 */
+	private int active = -1;
+	
+	/**
+	 * Creates an empty group
+	 *
+	 * @param ownerId The ID of the User that created the Events
+	 */
+	public EventGroup(long ownerId) {
+		this.ownerId = ownerId;
+	}
+	
+	/**
+	 * Adds an Event at the end of the group and makes it the active Event
+	 *
+	 * @param eventInstance The new Event
+	 */
+	public void add(@Nonnull EventInstance eventInstance) {
+		if (size == events.length)
+			events = Arrays.copyOf(events, size * 2);
+		events[size] = eventInstance;
+		active = size++;
+	}
+	
+	/**
+	 * Removes an Event from the group. The active Event stays the same if it was not removed,
+	 * otherwise the next Event, or the last one if there is no next Event, is the active one
+	 *
+	 * @param eventInstance The Event to remove
+	 *
+	 * @return {@code false} if the Event was not in the group
+	 */
+	public boolean remove(@Nonnull EventInstance eventInstance) {
+		int index = indexOf(eventInstance);
+		if (index == -1)
+			return false;
+		System.arraycopy(events, index + 1, events, index, size - index - 1);
+		events[--size] = null;
+		// an Event before the active one moved the active one down by one. If the active one was
+		// removed, the next Event moved to its index, unless it was the last one: then active is
+		// now size and the new last Event (or -1 for an empty group) becomes the active one
+		if (index < active || active == size)
+			active--;
+		return true;
+	}
+	
+	/**
+	 * Returns the index of an Event in the group
+	 *
+	 * @param eventInstance The Event
+	 *
+	 * @return The index, or -1 if the Event is not in the group
+	 */
+	public int indexOf(@Nonnull EventInstance eventInstance) {
+		for (int i = 0; i < size; i++) {
+			if (events[i] == eventInstance)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the Event at the index
+	 *
+	 * @param index The index of the Event
+	 *
+	 * @return The Event
+	 *
+	 * @throws IndexOutOfBoundsException If there is no Event at this index
+	 */
+	@Nonnull
+	public EventInstance get(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " with " + size + " Events");
+		return events[index];
+	}
+	
+	/**
+	 * Returns the active Event
+	 *
+	 * @return The active Event
+	 *
+	 * @throws IndexOutOfBoundsException If the group is empty
+	 */
+	@Nonnull
+	public EventInstance getActive() throws IndexOutOfBoundsException {
+		return get(active);
+	}
+	
+	/**
+	 * Returns the index of the active Event
+	 *
+	 * @return The index, -1 if the group is empty
+	 */
+	public int getActiveIndex() {
+		return active;
+	}
+	
+	/**
+	 * Changes the active Event
+	 *
+	 * @param index The index of the new active Event
+	 *
+	 * @throws IndexOutOfBoundsException If there is no Event at this index
+	 */
+	public void setActiveIndex(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " with " + size + " Events");
+		active = index;
+	}
+	
+	/**
+	 * Returns the amount of Events in the group
+	 *
+	 * @return The amount of Events
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Checks if the group has no Events
+	 *
+	 * @return {@code true} if the group is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+}
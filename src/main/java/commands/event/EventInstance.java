@@ -1,6 +1,7 @@
 package commands.event;
 
 import bot.BotEvents;
+import bot.BotMain;
 import emoji.Emoji;
 import java.awt.Color;
 import java.time.DateTimeException;
@@ -10,14 +11,17 @@ import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.dv8tion.jda.api.entities.MessageReaction;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -52,6 +56,19 @@ public class EventInstance {
 	 * The Logger for Log Messages
 	 */
 	private static final Logger logger = LoggerFactory.getLogger("Event Instance");
+	/**
+	 * The single Thread that renders the Embeds of all Events when their update window is over
+	 */
+	private static final ScheduledExecutorService renderScheduler = Executors
+			.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Event Embeds");
+				thread.setDaemon(true);
+				return thread;
+			});
+	/**
+	 * Amount of Embed edits that were skipped because the Embed did not change
+	 */
+	private static final AtomicLong suppressedEdits = new AtomicLong();
 	/**
 	 * First Embed Help Page of creating the Event
 	 */
@@ -103,6 +120,10 @@ public class EventInstance {
 	 * Saved Guild Instance where the Event Embed is posted
 	 */
 	public final Guild guild;
+	/**
+	 * The ID of the User that created the Event
+	 */
+	public final long ownerId;
 	/**
 	 * All Users that have the maybe Position
 	 */
@@ -124,17 +145,17 @@ public class EventInstance {
 	 */
 	public boolean vote = false;
 	/**
-	 * The Message Instance in the Guild with the Event Embed
+	 * The ID of the Message in the Guild with the Event Embed, 0 until it is sent
 	 */
-	public Message eventEmbedMessage;
+	public volatile long eventEmbedMessageId;
 	/**
-	 * The Message Instance in the Private Chat where the Help page is shown
+	 * The Message in the Private Chat where the Help page is shown
 	 */
-	public Message commandsMessage;
+	public volatile PrivateMessage commandsMessage;
 	/**
-	 * The Message Instance in the Private Chat with the Event Embed
+	 * The Message in the Private Chat with the Event Embed
 	 */
-	public Message eventPrivateEmbedMessage;
+	public volatile PrivateMessage eventPrivateEmbedMessage;
 	/**
 	 * The Channel in the Guild where the Event Embed is supposed to be
 	 */
@@ -167,10 +188,37 @@ public class EventInstance {
 	 * Boolean to know if the end Time is already Set
 	 */
 	private boolean setEndTime = false;
+	/**
+	 * Lock for {@link #pendingRender} and {@link #pendingDeleteReactions}
+	 */
+	private final Object renderLock = new Object();
+	/**
+	 * The scheduled render of the Embeds, {@code null} if the Embeds are up to date
+	 */
+	private ScheduledFuture<?> pendingRender;
+	/**
+	 * If the pending render should also repost the Reactions
+	 */
+	private boolean pendingDeleteReactions = false;
+	/**
+	 * The Embed currently shown in {@link #eventEmbedMessageId}, {@code null} if unknown
+	 */
+	private volatile MessageEmbed lastEventEmbed = null;
+	/**
+	 * The Embed currently shown in {@link #eventPrivateEmbedMessage}, {@code null} if unknown
+	 */
+	private volatile MessageEmbed lastEventPrivateEmbed = null;
+	/**
+	 * The Reactions that were last applied to {@link #eventEmbedMessageId}, {@code null} if
+	 * unknown
+	 */
+	private volatile List<String> appliedReactions;
 	
 	/**
-	 * This is the constructor for when an Event is retrieved by the XML Parser
+	 * This is the constructor for when an Event is restored from the saved IDs, without
+	 * retrieving any Message
 	 *
+	 * @param ownerId The ID of the User that created the Event
 	 * @param guild The Guild
 	 * @param title The Title
 	 * @param desc The Description
@@ -184,19 +232,21 @@ public class EventInstance {
 	 * @param vote If voting is on/off
 	 * @param commandsMessage The Message in the Private Chat with the Commands
 	 * @param eventPrivateEmbedMessage The Embed Message in the Private Chat
-	 * @param eventEmbedMessage The Embed Message with the Event
+	 * @param eventEmbedMessageId The ID of the Embed Message with the Event
 	 * @param eventEmbedMessageChannel The Channel where Event Embed is
 	 * @param maybeUsers The Users in the maybe position
 	 * @param backupUsers The Users in the backup position
 	 * @param locations The Location Instances
 	 */
-	public EventInstance(@Nonnull Guild guild, @Nonnull String title, @Nonnull String desc,
-			@Nullable TemporalAccessor startTime, @Nullable TemporalAccessor stopTime,
-			boolean eventDateSet, boolean startTimeSet, boolean stopTimeSet, boolean maybeToggle,
-			boolean backupToggle, boolean vote, @Nonnull Message commandsMessage,
-			@Nonnull Message eventPrivateEmbedMessage, @Nonnull Message eventEmbedMessage,
+	public EventInstance(long ownerId, @Nonnull Guild guild, @Nonnull String title,
+			@Nonnull String desc, @Nullable TemporalAccessor startTime,
+			@Nullable TemporalAccessor stopTime, boolean eventDateSet, boolean startTimeSet,
+			boolean stopTimeSet, boolean maybeToggle, boolean backupToggle, boolean vote,
+			@Nonnull PrivateMessage commandsMessage,
+			@Nonnull PrivateMessage eventPrivateEmbedMessage, long eventEmbedMessageId,
 			@Nonnull MessageChannel eventEmbedMessageChannel, @Nonnull ArrayList<Long> maybeUsers,
 			@Nonnull ArrayList<Long> backupUsers, @Nonnull ArrayList<Location> locations) {
+		this.ownerId = ownerId;
 		this.guild = guild;
 		this.title = title;
 		this.description = desc;
@@ -210,7 +260,7 @@ public class EventInstance {
 		this.vote = vote;
 		this.commandsMessage = commandsMessage;
 		this.eventPrivateEmbedMessage = eventPrivateEmbedMessage;
-		this.eventEmbedMessage = eventEmbedMessage;
+		setEventEmbedMessageId(eventEmbedMessageId);
 		this.eventEmbedMessageChannel = eventEmbedMessageChannel;
 		this.maybeUsers.addAll(maybeUsers);
 		this.backupUsers.addAll(backupUsers);
@@ -228,17 +278,21 @@ public class EventInstance {
 	 */
 	public EventInstance(@Nonnull MessageReceivedEvent event) {
 		logger.info("Starting to create an event");
+		ownerId = event.getAuthor().getIdLong();
 		guild = event.getGuild();
+		long userId = ownerId;
 		MessageEmbed embed = getEventEmbed();
 		// start a private chat
 		logger.info("Sending Private Message");
 		event.getAuthor().openPrivateChannel()
 				.queue(channel -> channel.sendMessage("We will continue the creation of the Event here:")
 						.queue(ignored -> {
-									channel.sendMessage(embed1)
-											.queue(message -> commandsMessage = message);
-									channel.sendMessage(embed)
-											.queue(message -> eventPrivateEmbedMessage = message);
+									channel.sendMessage(embed1).queue(message ->
+											commandsMessage = new PrivateMessage(userId,
+													message.getIdLong()));
+									channel.sendMessage(embed).queue(message ->
+											eventPrivateEmbedMessage = new PrivateMessage(userId,
+													message.getIdLong()));
 								},
 								new ErrorHandler().handle(ErrorResponse.CANNOT_SEND_TO_USER,
 										e -> BotEvents
@@ -247,7 +301,19 @@ public class EventInstance {
 		eventEmbedMessageChannel = event.getChannel();
 		// send the Event Embed
 		eventEmbedMessageChannel.sendMessage(embed)
-				.queue(message -> eventEmbedMessage = message);
+				.queue(message -> setEventEmbedMessageId(message.getIdLong()));
+	}
+	
+	/**
+	 * Sets the Event Embed Message and updates the {@link MessageIndex}
+	 *
+	 * @param messageId The ID of the new Event Embed Message
+	 */
+	private void setEventEmbedMessageId(long messageId) {
+		if (eventEmbedMessageId != 0)
+			MessageIndex.removeEventEmbed(eventEmbedMessageId);
+		eventEmbedMessageId = messageId;
+		MessageIndex.addEventEmbed(messageId, this);
 	}
 	
 	/**
@@ -282,7 +348,14 @@ public class EventInstance {
 	 * Deletes this Event
 	 */
 	public void deleteEvent() {
-		eventEmbedMessage.delete()
+		synchronized (renderLock) {
+			if (pendingRender != null)
+				pendingRender.cancel(false);
+			pendingRender = null;
+		}
+		MessageIndex.removeEventEmbed(eventEmbedMessageId);
+		locations.forEach(Location::deleteAllEmbeds);
+		eventEmbedMessageChannel.deleteMessageById(eventEmbedMessageId)
 				.queue(unused -> {}, new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
 	}
 	
@@ -386,8 +459,8 @@ public class EventInstance {
 								// remove location with the same name if present
 								locations.removeIf(
 										location -> location.location.equals(locationString));
-								locations.add(new Location(locationString, positions,
-										eventEmbedMessage.getGuild(), this));
+								locations.add(new Location(locationString, positions, guild,
+										this));
 								deleteReactions = true;
 							}
 						} catch (IndexOutOfBoundsException e) {
@@ -418,9 +491,9 @@ public class EventInstance {
 					}
 				}
 			}
-			case "next" -> commandsMessage.editMessage(embed2)
+			case "next" -> commandsMessage.edit(guild.getJDA(), embed2)
 					.queue(); // show page 2 of Help Page
-			case "previous" -> commandsMessage.editMessage(embed1)
+			case "previous" -> commandsMessage.edit(guild.getJDA(), embed1)
 					.queue(); // show page 1 of Help Page
 			case "vote" -> { // toggle voting on/off
 				vote = !vote;
@@ -431,32 +504,27 @@ public class EventInstance {
 					List<TextChannel> mentionedChannels = event.getMessage()
 							.getMentionedChannels();
 					if (mentionedChannels.size() == 1) {
-						Object lock = new Object();
-						mentionedChannels.get(0)
-								.sendMessage(getEventEmbed()) // send new Embed
-								.queue(message -> {
+						MessageEmbed embed = getEventEmbed();
+						TextChannel channel = mentionedChannels.get(0);
+						channel.sendMessage(embed) // send new Embed
+								.queue(message -> EventActors.tell(ownerId, () -> {
 									// delete old Event Embed message
-									eventEmbedMessage.delete().queue(unused -> {},
+									eventEmbedMessageChannel
+											.deleteMessageById(eventEmbedMessageId)
+											.queue(unused -> {},
 											new ErrorHandler()
 													.ignore(ErrorResponse.UNKNOWN_MESSAGE));
 									// save new channel
-									eventEmbedMessageChannel = mentionedChannels.get(0);
-									eventEmbedMessage = message;
-									synchronized (lock) {
-										lock.notify();
-									}
-								}, new ErrorHandler()
+									eventEmbedMessageChannel = channel;
+									setEventEmbedMessageId(message.getIdLong());
+									lastEventEmbed = embed;
+									appliedReactions = null;
+									updateEmbeds(false); // add the Reactions to the new Embed
+								}), new ErrorHandler()
 										.handle(ErrorResponse.MISSING_PERMISSIONS, e ->
 												eventEmbedMessageChannel.sendMessage(
 														"Don't have permission to send Messages to that Channel")
 														.queue()));
-						try {
-							synchronized (lock) {
-								// wait for the message to be send
-								lock.wait(5000);
-							}
-						} catch (InterruptedException ignored) {
-						}
 					} else // User mentioned multiple or no channels
 						event.getChannel()
 								.sendMessage("You have to mention exactly one Channel").queue();
@@ -471,56 +539,118 @@ public class EventInstance {
 	}
 	
 	/**
-	 * Update the Event Embed Message
+	 * Marks the Event Embed Messages as outdated. They are rendered with the latest state at most
+	 * once per update window (Setting {@code EmbedUpdateWindow} in milliseconds), so that many
+	 * changes in a short time only result in one edit. The render itself runs in the mailbox of
+	 * the owner in {@link EventActors}, like every other access to the state of the Event
 	 *
 	 * @param deleteReactions If the Reactions should be reposted because a change may have
 	 * 		occurred
 	 */
 	void updateEmbeds(boolean deleteReactions) {
+		synchronized (renderLock) {
+			pendingDeleteReactions |= deleteReactions;
+			if (pendingRender == null)
+				pendingRender = renderScheduler.schedule(
+						() -> EventActors.tell(ownerId, this::renderEmbeds),
+						BotMain.getSetting("EmbedUpdateWindow", 1000), TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Update the Event Embed Messages with the current state of the Event, runs in the mailbox of
+	 * the owner
+	 */
+	private void renderEmbeds() {
+		boolean deleteReactions;
+		synchronized (renderLock) {
+			deleteReactions = pendingDeleteReactions;
+			pendingDeleteReactions = false;
+			pendingRender = null;
+		}
 		MessageEmbed embed = getEventEmbed();
-		eventEmbedMessage.editMessage(embed).queue(ignored -> addReactions(deleteReactions),
-				new ErrorHandler().handle(ErrorResponse.UNKNOWN_MESSAGE, e -> // in case deleted
-						eventEmbedMessageChannel.sendMessage(embed)
-								.queue(message -> eventEmbedMessage = message)));
-		eventPrivateEmbedMessage.editMessage(embed).queue(unused -> {},
-				new ErrorHandler().handle(ErrorResponse.UNKNOWN_MESSAGE, e -> // in case deleted
-						eventPrivateEmbedMessage.getChannel().sendMessage(embed)
-								.queue(message -> eventPrivateEmbedMessage = message)));
+		// compare the whole Embed, a hash could hide a change
+		if (!embed.equals(lastEventEmbed)) {
+			// the callbacks run on JDA Threads, the state is only changed in the mailbox
+			eventEmbedMessageChannel.editMessageById(eventEmbedMessageId, embed)
+					.queue(ignored -> EventActors.tell(ownerId, () -> {
+						lastEventEmbed = embed;
+						addReactions(deleteReactions);
+					}), new ErrorHandler().handle(ErrorResponse.UNKNOWN_MESSAGE, e -> // deleted
+							eventEmbedMessageChannel.sendMessage(embed)
+									.queue(message -> EventActors.tell(ownerId, () -> {
+										setEventEmbedMessageId(message.getIdLong());
+										lastEventEmbed = embed;
+										appliedReactions = null;
+										addReactions(true);
+									}))));
+		} else { // nothing visible changed, the Reactions may still need an update
+			suppressedEdits.incrementAndGet();
+			addReactions(deleteReactions);
+		}
+		if (!embed.equals(lastEventPrivateEmbed)) {
+			eventPrivateEmbedMessage.edit(guild.getJDA(), embed)
+					.queue(unused -> EventActors.tell(ownerId, () -> lastEventPrivateEmbed = embed),
+							new ErrorHandler().handle(ErrorResponse.UNKNOWN_MESSAGE, e -> // deleted
+									eventPrivateEmbedMessage.resend(guild.getJDA(), embed)
+											.queue(message -> EventActors.tell(ownerId, () -> {
+												eventPrivateEmbedMessage = message;
+												lastEventPrivateEmbed = embed;
+											}))));
+		} else
+			suppressedEdits.incrementAndGet();
 	}
 	
 	/**
-	 * Add the needed Reactions to the Embed Message
+	 * Returns the amount of Embed edits that were skipped because nothing visible changed
 	 *
-	 * @param deleteReactions if the Reactions should be first removed
+	 * @return The amount of suppressed edits
+	 */
+	public static long getSuppressedEdits() {
+		return suppressedEdits.get();
+	}
+	
+	/**
+	 * Add the needed Reactions to the Embed Message and remove the ones that are not needed
+	 * anymore, runs in the mailbox of the owner
+	 *
+	 * @param deleteReactions if the Reactions may have changed and should be checked even if
+	 * 		they match the last applied Reactions
 	 */
 	private void addReactions(boolean deleteReactions) {
+		List<String> wanted = getWantedReactions();
+		if (!deleteReactions && wanted.equals(appliedReactions))
+			return; // nothing changed since the last time, no need to retrieve the message
 		// we need to retrieve the message since Reactions are immutable
-		eventEmbedMessageChannel.retrieveMessageById(eventEmbedMessage.getIdLong())
+		eventEmbedMessageChannel.retrieveMessageById(eventEmbedMessageId)
 				.queue(message -> {
-					List<MessageReaction> reactions = message.getReactions();
-					// remove every reaction
-					if (deleteReactions) {
-						reactions.forEach(messageReaction -> message.removeReaction(
-								messageReaction.getReactionEmote().getAsReactionCode())
-								.queue(unused -> {}, Throwable::printStackTrace));
-					}
-					
-					// add the reactions if toggled
-					if (vote) {
-						if (locations.size() != 0) {
-							for (int i = 0; i < locations.size(); i++)
-								message.addReaction(Emoji.numbersList.get(i)).queue();
-						}
-						if (maybeToggle)
-							message.addReaction(Emoji.GREY_QUESTION).queue();
-						if (backupToggle)
-							message.addReaction(Emoji.COUCH).queue();
-						
-						message.addReaction(Emoji.X).queue();
-					}
+					ReactionReconciler.reconcile(message, wanted);
+					appliedReactions = wanted;
 				});
 	}
 	
+	/**
+	 * Computes the Reactions the Event Embed should have
+	 *
+	 * @return The Emojis in the order they should be shown
+	 */
+	@Nonnull
+	private List<String> getWantedReactions() {
+		List<String> wanted = new ArrayList<>();
+		// add the reactions if toggled
+		if (vote) {
+			for (int i = 0; i < locations.size(); i++)
+				wanted.add(Emoji.numbersList.get(i));
+			if (maybeToggle)
+				wanted.add(Emoji.GREY_QUESTION);
+			if (backupToggle)
+				wanted.add(Emoji.COUCH);
+			
+			wanted.add(Emoji.X);
+		}
+		return wanted;
+	}
+	
 	/**
 	 * Will post the Position Embed for the chosen location, or remove the user from all
 	 * positions
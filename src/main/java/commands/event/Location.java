@@ -1,12 +1,13 @@
 package commands.event;
 
 import bot.BotEvents;
+import bot.DelayedDeletions;
 import emoji.Emoji;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import javax.annotation.Nonnull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Emote;
@@ -28,11 +29,12 @@ public class Location {
 	private static final Logger logger = LoggerFactory.getLogger("Event Location");
 	
 	/**
-	 * Hashmap with all active Messages to choose a position.
+	 * Map with all active Messages to choose a position. Concurrent because the Messages expire on
+	 * the Thread of {@link DelayedDeletions} while the reactions are handled in {@link EventActors}
 	 * <p>
-	 * The Object array has following setup: {@code [Message, userID]}
+	 * The Object array has following setup: {@code [Message, userID, deletion handle]}
 	 */
-	public final HashMap<Long, Object[]> messages = new HashMap<>();
+	public final ConcurrentHashMap<Long, Object[]> messages = new ConcurrentHashMap<>();
 	/**
 	 * The Location Name
 	 */
@@ -93,6 +95,15 @@ public class Location {
 		getReactions(guild);
 	}
 	
+	/**
+	 * Returns the ID of the User that created the Event of this Location
+	 *
+	 * @return The ID of the Event owner
+	 */
+	public long getOwnerId() {
+		return parent.ownerId;
+	}
+	
 	/**
 	 * Updates the Guild and Parent Instance. This method is exclusively used when the Location was
 	 * created from the Config
@@ -166,7 +177,10 @@ public class Location {
 		String reaction = reactionEmote.getAsReactionCode();
 		if (reactionsContains(reaction)) {
 			Long userID = user.getIdLong();
-			if (messages.get(message.getIdLong())[1].equals(userID)) {
+			Object[] entry = messages.get(message.getIdLong());
+			// the Embed can expire between the reaction and this call
+			if (entry != null && entry[1].equals(userID)
+					&& messages.remove(message.getIdLong(), entry)) {
 				parent.removeUser(userID);
 				
 				users.add(userID);
@@ -175,8 +189,9 @@ public class Location {
 				else
 					userPositions.add("<:" + reaction + ">");
 				
+				DelayedDeletions.cancel((ScheduledFuture<?>) entry[2]);
 				message.delete().queue();
-				messages.remove(message.getIdLong());
+				removeEmbed(message.getIdLong());
 				
 				parent.updateEmbeds(false);
 				return true;
@@ -186,6 +201,23 @@ public class Location {
 		return false;
 	}
 	
+	/**
+	 * Checks if a Reaction on a position choosing Embed would add the User, without changing
+	 * anything. {@link #addUser(ReactionEmote, User, Message)} checks again when it runs
+	 *
+	 * @param reactionEmote The Emote that was Reacted
+	 * @param user The User that Reacted
+	 * @param messageId The ID of the Message that was Reacted
+	 *
+	 * @return if the Embed is still active, is for that User and the Reaction is a position
+	 */
+	public boolean acceptsReaction(@Nonnull ReactionEmote reactionEmote, @Nonnull User user,
+			long messageId) {
+		Object[] entry = messages.get(messageId);
+		return entry != null && entry[1].equals(user.getIdLong())
+				&& reactionsContains(reactionEmote.getAsReactionCode());
+	}
+	
 	/**
 	 * Tests if the Reaction is contained in {@link #reactions}
 	 *
@@ -259,22 +291,12 @@ public class Location {
 					message.addReaction((String) reaction).queue(unused -> {},
 							new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
 			}
-			messages.put(message.getIdLong(), new Object[]{message, user.getIdLong()});
-			
-			new Thread(() -> {
-				try {
-					Thread.sleep(60 * 1000);
-				} catch (InterruptedException ignored) {
-				}
-				// delete the Message after X sec
-				messages.remove(message.getIdLong());
-				try {
-					message.delete()
-							.queue(unused -> {},
-									new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
-				} catch (RejectedExecutionException ignored) {
-				}
-			}).start();
+			// delete the Message after 60 sec
+			ScheduledFuture<?> deletion = DelayedDeletions.schedule(message, 60,
+					() -> removeEmbed(message.getIdLong()));
+			messages.put(message.getIdLong(),
+					new Object[]{message, user.getIdLong(), deletion});
+			MessageIndex.addPositionEmbed(message.getIdLong(), this);
 		}, new ErrorHandler().handle(ErrorResponse.CANNOT_SEND_TO_USER,
 				e -> BotEvents.cannotSendPrivateMessage(channel, user)));
 	}
@@ -285,19 +307,40 @@ public class Location {
 	 * @param user The User for which the Embed is
 	 */
 	private void deleteEmbedIfExist(Long user) {
-		Set<Long> keys = messages.keySet();
-		Long key = null;
-		for (Long tempKey : keys) {
-			Object[] array = messages.get(tempKey);
-			if (array[1].equals(user)) {
-				key = tempKey;
+		for (Map.Entry<Long, Object[]> entry : messages.entrySet()) {
+			Object[] array = entry.getValue();
+			// only the caller that removes the Embed deletes it, it could have just expired
+			if (array[1].equals(user) && messages.remove(entry.getKey(), array)) {
+				DelayedDeletions.cancel((ScheduledFuture<?>) array[2]);
+				((Message) array[0]).delete().queue();
+				removeEmbed(entry.getKey());
 				break;
 			}
 		}
-		if (key != null) {
-			Object[] array = messages.get(key);
-			((Message) array[0]).delete().queue();
-			messages.remove(key);
+	}
+	
+	/**
+	 * Deletes all position choosing Embeds of this Location, used when the Event is deleted
+	 */
+	void deleteAllEmbeds() {
+		for (Map.Entry<Long, Object[]> entry : messages.entrySet()) {
+			Object[] array = entry.getValue();
+			// only the caller that removes the Embed deletes it, it could have just expired
+			if (messages.remove(entry.getKey(), array)) {
+				DelayedDeletions.cancel((ScheduledFuture<?>) array[2]);
+				((Message) array[0]).delete().queue();
+				MessageIndex.removePositionEmbed(entry.getKey());
+			}
 		}
 	}
+	
+	/**
+	 * Removes a position choosing Embed from {@link #messages} and the {@link MessageIndex}
+	 *
+	 * @param messageId The ID of the position choosing Embed
+	 */
+	private void removeEmbed(long messageId) {
+		messages.remove(messageId);
+		MessageIndex.removePositionEmbed(messageId);
+	}
 }
@@ -0,0 +1,96 @@
+package commands.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Index of all Event related Messages, so that a Reaction can be routed to its Event or Location
+ * with one lookup of the Message ID
+ */
+public class MessageIndex {
+	
+	/**
+	 * The Event Instances mapped to the ID of their Event Embed in the Guild
+	 */
+	private static final Map<Long, EventInstance> eventEmbeds = new ConcurrentHashMap<>();
+	/**
+	 * The Locations mapped to the IDs of their active position choosing Embeds
+	 */
+	private static final Map<Long, Location> positionEmbeds = new ConcurrentHashMap<>();
+	
+	/**
+	 * Registers the Event Embed Message of an Event
+	 *
+	 * @param messageId The ID of the Event Embed Message
+	 * @param eventInstance The Event of the Embed
+	 */
+	static void addEventEmbed(long messageId, @Nonnull EventInstance eventInstance) {
+		eventEmbeds.put(messageId, eventInstance);
+	}
+	
+	/**
+	 * Removes an Event Embed Message from the Index
+	 *
+	 * @param messageId The ID of the Event Embed Message
+	 */
+	static void removeEventEmbed(long messageId) {
+		eventEmbeds.remove(messageId);
+	}
+	
+	/**
+	 * Registers a position choosing Embed of a Location
+	 *
+	 * @param messageId The ID of the position choosing Embed
+	 * @param location The Location of the Embed
+	 */
+	static void addPositionEmbed(long messageId, @Nonnull Location location) {
+		positionEmbeds.put(messageId, location);
+	}
+	
+	/**
+	 * Removes a position choosing Embed from the Index
+	 *
+	 * @param messageId The ID of the position choosing Embed
+	 */
+	static void removePositionEmbed(long messageId) {
+		positionEmbeds.remove(messageId);
+	}
+	
+	/**
+	 * Returns the Event of an Event Embed Message
+	 *
+	 * @param messageId The ID of the Message
+	 *
+	 * @return The Event or {@code null} if the Message is not an Event Embed
+	 */
+	@Nullable
+	public static EventInstance getEventInstance(long messageId) {
+		return eventEmbeds.get(messageId);
+	}
+	
+	/**
+	 * Returns the Location of a position choosing Embed
+	 *
+	 * @param messageId The ID of the Message
+	 *
+	 * @return The Location or {@code null} if the Message is not a position choosing Embed
+	 */
+	@Nullable
+	public static Location getLocation(long messageId) {
+		return positionEmbeds.get(messageId);
+	}
+	
+	/**
+	 * Checks if the Message is an Event Embed or a position choosing Embed
+	 *
+	 * @param messageId The ID of the Message
+	 *
+	 * @return {@code true} if the Message is in the Index
+	 */
+	public static boolean contains(long messageId) {
+		return eventEmbeds.containsKey(messageId) || positionEmbeds.containsKey(messageId);
+	}
+	
+}
@@ -0,0 +1,63 @@
+package commands.event;
+
+import javax.annotation.Nonnull;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.requests.RestAction;
+
+/**
+ * Handle of a Message in a Private Chat, only with the IDs. The Message is never retrieved, it is
+ * edited through its ID
+ */
+public class PrivateMessage {
+	
+	/**
+	 * The ID of the User of the Private Chat
+	 */
+	public final long userId;
+	/**
+	 * The ID of the Message
+	 */
+	public final long messageId;
+	
+	/**
+	 * Creates a new handle
+	 *
+	 * @param userId The ID of the User of the Private Chat
+	 * @param messageId The ID of the Message
+	 */
+	public PrivateMessage(long userId, long messageId) {
+		this.userId = userId;
+		this.messageId = messageId;
+	}
+	
+	/**
+	 * Edits the Message
+	 *
+	 * @param jda The JDA to open the Private Chat
+	 * @param embed The new Embed
+	 *
+	 * @return The RestAction of the edit
+	 */
+	@Nonnull
+	public RestAction<Message> edit(@Nonnull JDA jda, @Nonnull MessageEmbed embed) {
+		return jda.openPrivateChannelById(userId)
+				.flatMap(channel -> channel.editMessageById(messageId, embed));
+	}
+	
+	/**
+	 * Sends a new Message in the same Private Chat, for when this Message was deleted
+	 *
+	 * @param jda The JDA to open the Private Chat
+	 * @param embed The Embed of the new Message
+	 *
+	 * @return The RestAction with the handle of the new Message
+	 */
+	@Nonnull
+	public RestAction<PrivateMessage> resend(@Nonnull JDA jda, @Nonnull MessageEmbed embed) {
+		return jda.openPrivateChannelById(userId).flatMap(channel -> channel.sendMessage(embed))
+				.map(message -> new PrivateMessage(userId, message.getIdLong()));
+	}
+	
+}
@@ -0,0 +1,52 @@
+package commands.event;
+
+import emoji.Emoji;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageReaction;
+import net.dv8tion.jda.api.exceptions.ErrorHandler;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+
+/**
+ * Brings the Reactions of the Bot on a Message to the wanted state by only removing and adding the
+ * Reactions that differ
+ */
+class ReactionReconciler {
+	
+	/**
+	 * Compares the Reactions the Bot has on the Message with the wanted Reactions and only sends
+	 * the needed changes. Reactions are shown in the order they were added, so the Reactions
+	 * matching the start of the wanted List are kept, and everything after the first difference is
+	 * removed and added again in the right order.
+	 *
+	 * @param message The freshly retrieved Message, since Reactions are immutable
+	 * @param wanted The wanted Emojis in the order they should be shown
+	 */
+	static void reconcile(@Nonnull Message message, @Nonnull List<String> wanted) {
+		List<String> current = new ArrayList<>(); // cleaned up Emojis to compare with wanted
+		List<String> currentCodes = new ArrayList<>(); // the real Reaction codes to remove them
+		for (MessageReaction reaction : message.getReactions()) {
+			MessageReaction.ReactionEmote reactionEmote = reaction.getReactionEmote();
+			// only the Reactions of the Bot, the Reactions of the Users are not touched
+			if (reaction.isSelf() && reactionEmote.isEmoji()) {
+				current.add(Emoji.getCleanedUpEmoji(reactionEmote.getEmoji()));
+				currentCodes.add(reactionEmote.getAsReactionCode());
+			}
+		}
+		
+		int matching = 0;
+		while (matching < current.size() && matching < wanted.size()
+				&& current.get(matching).equals(wanted.get(matching)))
+			matching++;
+		
+		for (int i = matching; i < currentCodes.size(); i++)
+			message.removeReaction(currentCodes.get(i))
+					.queue(unused -> {}, new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
+		for (int i = matching; i < wanted.size(); i++)
+			message.addReaction(wanted.get(i))
+					.queue(unused -> {}, new ErrorHandler().ignore(ErrorResponse.UNKNOWN_MESSAGE));
+	}
+	
+}
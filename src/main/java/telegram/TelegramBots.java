@@ -13,7 +13,6 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.meta.generics.BotSession;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
-import xml.XMLParser;
 
 public class TelegramBots {
 	
@@ -29,7 +28,7 @@ public class TelegramBots {
 	private static List<List<Object>> queue = new ArrayList<>();
 	
 	public static void setupBots() {
-		ArrayList<String[]> infos = XMLParser.getTelegramBots();
+		List<String[]> infos = BotMain.getConfig().telegramBots;
 		if (infos == null) {
 			queue = null;
 			return; // no Telegram Bot available
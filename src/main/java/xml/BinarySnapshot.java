@@ -0,0 +1,338 @@
+package xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * The compact binary format of the Events and Timezones, an alternative to the XML Files.
+ * <p>
+ * A File starts with {@link #MAGIC}, the {@link #VERSION} of the format and the kind of content.
+ * IDs are saved as longs and Strings as their length followed by the UTF-8 bytes. Every Event is
+ * prefixed with its length, so that a newer version can add fields at the end of an Event
+ */
+class BinarySnapshot {
+	
+	/**
+	 * The first bytes of every File: "ATCB"
+	 */
+	private static final int MAGIC = 0x41544342;
+	/**
+	 * The version of the format that is written
+	 */
+	private static final short VERSION = 1;
+	/**
+	 * Kind of content: Events
+	 */
+	private static final byte EVENTS = 1;
+	/**
+	 * Kind of content: Timezones
+	 */
+	private static final byte TIMEZONES = 2;
+	/**
+	 * Bit of the maybe toggle in the toggles of an Event
+	 */
+	private static final int MAYBE_TOGGLE = 1;
+	/**
+	 * Bit of the backup toggle in the toggles of an Event
+	 */
+	private static final int BACKUP_TOGGLE = 1 << 1;
+	/**
+	 * Bit of the vote toggle in the toggles of an Event
+	 */
+	private static final int VOTE_TOGGLE = 1 << 2;
+	
+	/**
+	 * Writes the Timezones
+	 *
+	 * @param output The Stream of the File
+	 * @param timezones The Timezones mapped to the User ID
+	 *
+	 * @throws IOException If the Timezones could not be written
+	 */
+	static void writeTimezones(@Nonnull OutputStream output, @Nonnull Map<Long, String> timezones)
+			throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+		writeHeader(out, TIMEZONES);
+		out.writeInt(timezones.size());
+		for (Map.Entry<Long, String> entry : timezones.entrySet()) {
+			out.writeLong(entry.getKey());
+			writeString(out, entry.getValue());
+		}
+		out.flush();
+	}
+	
+	/**
+	 * Reads the Timezones
+	 *
+	 * @param file The File with the Timezones
+	 *
+	 * @return The Timezones mapped to the User ID
+	 *
+	 * @throws IOException If the File could not be read or has an unknown format
+	 */
+	static Map<Long, String> readTimezones(@Nonnull File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			readHeader(in, TIMEZONES, file);
+			int count = in.readInt();
+			Map<Long, String> timezones = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++)
+				timezones.put(in.readLong(), readString(in));
+			return timezones;
+		}
+	}
+	
+	/**
+	 * Writes the Events
+	 *
+	 * @param output The Stream of the File
+	 * @param groups The saved form of the Event Groups
+	 *
+	 * @throws IOException If the Events could not be written
+	 */
+	static void writeEvents(@Nonnull OutputStream output,
+			@Nonnull List<EventData.GroupData> groups) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+		writeHeader(out, EVENTS);
+		out.writeInt(groups.size());
+		ByteArrayOutputStream event = new ByteArrayOutputStream();
+		DataOutputStream eventOut = new DataOutputStream(event);
+		for (EventData.GroupData group : groups) {
+			out.writeLong(group.ownerId);
+			out.writeInt(group.activeIndex);
+			out.writeInt(group.events.size());
+			for (EventData data : group.events) {
+				event.reset();
+				writeEvent(eventOut, data);
+				out.writeInt(event.size());
+				event.writeTo(out);
+			}
+		}
+		out.flush();
+	}
+	
+	/**
+	 * Reads the Events
+	 *
+	 * @param file The File with the Events
+	 *
+	 * @return The saved form of the Event Groups
+	 *
+	 * @throws IOException If the File could not be read or has an unknown format
+	 */
+	static List<EventData.GroupData> readEvents(@Nonnull File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			readHeader(in, EVENTS, file);
+			int groupCount = in.readInt();
+			List<EventData.GroupData> groups = new ArrayList<>(groupCount);
+			for (int i = 0; i < groupCount; i++) {
+				EventData.GroupData group = new EventData.GroupData(in.readLong());
+				group.activeIndex = in.readInt();
+				int eventCount = in.readInt();
+				for (int j = 0; j < eventCount; j++) {
+					byte[] event = new byte[in.readInt()];
+					in.readFully(event);
+					group.events.add(readEvent(
+							new DataInputStream(new ByteArrayInputStream(event))));
+				}
+				groups.add(group);
+			}
+			return groups;
+		}
+	}
+	
+	/**
+	 * Writes one Event
+	 *
+	 * @param out The Stream of the Event
+	 * @param data The saved form of the Event
+	 *
+	 * @throws IOException If the Event could not be written
+	 */
+	private static void writeEvent(@Nonnull DataOutputStream out, @Nonnull EventData data)
+			throws IOException {
+		out.writeLong(data.guildId);
+		writeString(out, data.title);
+		writeString(out, data.description);
+		writeString(out, data.eventDate);
+		writeString(out, data.startTime);
+		writeString(out, data.stopTime);
+		out.writeByte((data.maybeToggle ? MAYBE_TOGGLE : 0)
+				| (data.backupToggle ? BACKUP_TOGGLE : 0) | (data.vote ? VOTE_TOGGLE : 0));
+		out.writeLong(data.commandsUserId);
+		out.writeLong(data.commandsMessageId);
+		out.writeLong(data.privateEmbedUserId);
+		out.writeLong(data.privateEmbedMessageId);
+		out.writeLong(data.eventEmbedChannelId);
+		out.writeLong(data.eventEmbedMessageId);
+		writeIds(out, data.maybeUsers);
+		writeIds(out, data.backupUsers);
+		out.writeInt(data.locations.size());
+		for (EventData.LocationData location : data.locations) {
+			writeString(out, location.name);
+			out.writeInt(location.positions.size());
+			for (String position : location.positions)
+				writeString(out, position);
+			out.writeInt(location.users.size());
+			for (int i = 0; i < location.users.size(); i++) {
+				out.writeLong(location.users.get(i));
+				writeString(out, location.userPositions.get(i));
+			}
+		}
+	}
+	
+	/**
+	 * Reads one Event
+	 *
+	 * @param in The Stream of the Event
+	 *
+	 * @return The saved form of the Event
+	 *
+	 * @throws IOException If the Event could not be read
+	 */
+	private static EventData readEvent(@Nonnull DataInputStream in) throws IOException {
+		EventData data = new EventData();
+		data.guildId = in.readLong();
+		data.title = readString(in);
+		data.description = readString(in);
+		data.eventDate = readString(in);
+		data.startTime = readString(in);
+		data.stopTime = readString(in);
+		int toggles = in.readByte();
+		data.maybeToggle = (toggles & MAYBE_TOGGLE) != 0;
+		data.backupToggle = (toggles & BACKUP_TOGGLE) != 0;
+		data.vote = (toggles & VOTE_TOGGLE) != 0;
+		data.commandsUserId = in.readLong();
+		data.commandsMessageId = in.readLong();
+		data.privateEmbedUserId = in.readLong();
+		data.privateEmbedMessageId = in.readLong();
+		data.eventEmbedChannelId = in.readLong();
+		data.eventEmbedMessageId = in.readLong();
+		readIds(in, data.maybeUsers);
+		readIds(in, data.backupUsers);
+		int locationCount = in.readInt();
+		for (int i = 0; i < locationCount; i++) {
+			EventData.LocationData location = new EventData.LocationData(readString(in));
+			int positionCount = in.readInt();
+			for (int j = 0; j < positionCount; j++)
+				location.positions.add(readString(in));
+			int userCount = in.readInt();
+			for (int j = 0; j < userCount; j++) {
+				location.users.add(in.readLong());
+				location.userPositions.add(readString(in));
+			}
+			data.locations.add(location);
+		}
+		return data;
+	}
+	
+	/**
+	 * Writes the start of a File
+	 *
+	 * @param out The Stream of the File
+	 * @param kind {@link #EVENTS} or {@link #TIMEZONES}
+	 *
+	 * @throws IOException If the header could not be written
+	 */
+	private static void writeHeader(@Nonnull DataOutputStream out, byte kind) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeByte(kind);
+	}
+	
+	/**
+	 * Reads and checks the start of a File
+	 *
+	 * @param in The Stream of the File
+	 * @param kind The expected kind of content, {@link #EVENTS} or {@link #TIMEZONES}
+	 * @param file The File, for the error messages
+	 *
+	 * @throws IOException If the header could not be read or doesn't match
+	 */
+	private static void readHeader(@Nonnull DataInputStream in, byte kind, @Nonnull File file)
+			throws IOException {
+		if (in.readInt() != MAGIC)
+			throw new IOException(file.getName() + " is not a binary State File");
+		short version = in.readShort();
+		if (version != VERSION)
+			throw new IOException(file.getName() + " has the unknown version " + version);
+		if (in.readByte() != kind)
+			throw new IOException(file.getName() + " has the wrong kind of content");
+	}
+	
+	/**
+	 * Writes a list of IDs, prefixed with its size
+	 *
+	 * @param out The Stream
+	 * @param ids The IDs
+	 *
+	 * @throws IOException If the IDs could not be written
+	 */
+	private static void writeIds(@Nonnull DataOutputStream out, @Nonnull List<Long> ids)
+			throws IOException {
+		out.writeInt(ids.size());
+		for (long id : ids)
+			out.writeLong(id);
+	}
+	
+	/**
+	 * Reads a list of IDs, prefixed with its size
+	 *
+	 * @param in The Stream
+	 * @param ids The List the IDs are added to
+	 *
+	 * @throws IOException If the IDs could not be read
+	 */
+	private static void readIds(@Nonnull DataInputStream in, @Nonnull List<Long> ids)
+			throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++)
+			ids.add(in.readLong());
+	}
+	
+	/**
+	 * Writes a String as its length followed by the UTF-8 bytes
+	 *
+	 * @param out The Stream
+	 * @param text The String
+	 *
+	 * @throws IOException If the String could not be written
+	 */
+	private static void writeString(@Nonnull DataOutputStream out, @Nonnull String text)
+			throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Reads a String written by {@link #writeString(DataOutputStream, String)}
+	 *
+	 * @param in The Stream
+	 *
+	 * @return The String
+	 *
+	 * @throws IOException If the String could not be read
+	 */
+	private static String readString(@Nonnull DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+}
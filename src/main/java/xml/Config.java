@@ -0,0 +1,52 @@
+package xml;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The static configuration of the Config.xml. It is read once and never changed, a reload creates
+ * a new Config
+ */
+public class Config {
+	
+	/**
+	 * Token of the Bot
+	 */
+	public final String token;
+	/**
+	 * Map of special Role and Channel IDs: Guild, Owner, Admin, Event_Organizer, Instructor,
+	 * Trained and SystemLogs
+	 */
+	public final Map<String, Long> roles;
+	/**
+	 * Map of the optional Settings
+	 */
+	public final Map<String, String> settings;
+	/**
+	 * The Information for the Telegram Bots: {@code {username, token}} of the Main Bot and of the
+	 * Important Bot, then {@code {userChannelId}}. {@code null} if not available
+	 */
+	@Nullable
+	public final List<String[]> telegramBots;
+	
+	/**
+	 * Creates a new Config
+	 *
+	 * @param token Token of the Bot
+	 * @param roles Map of special Role and Channel IDs
+	 * @param settings Map of the optional Settings
+	 * @param telegramBots The Information for the Telegram Bots or {@code null} if not available
+	 */
+	Config(@Nonnull String token, @Nonnull Map<String, Long> roles,
+			@Nonnull Map<String, String> settings, @Nullable List<String[]> telegramBots) {
+		this.token = token;
+		this.roles = Collections.unmodifiableMap(roles);
+		this.settings = Collections.unmodifiableMap(settings);
+		this.telegramBots = telegramBots == null ? null : Collections
+				.unmodifiableList(telegramBots);
+	}
+	
+}
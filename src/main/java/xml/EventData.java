@@ -0,0 +1,207 @@
+package xml;
+
+import commands.event.EventGroup;
+import commands.event.EventInstance;
+import commands.event.Location;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * The saved form of one Event, only with IDs and Strings and without any JDA Object. Both the XML
+ * and the binary format read and write Events through this class
+ */
+class EventData {
+	
+	/**
+	 * The ID of the Guild of the Event
+	 */
+	long guildId;
+	/**
+	 * The Title
+	 */
+	String title = EventInstance.notSet;
+	/**
+	 * The Description
+	 */
+	String description = EventInstance.notSet;
+	/**
+	 * The Event Date, {@link EventInstance#notSet} if not set
+	 */
+	String eventDate = EventInstance.notSet;
+	/**
+	 * The Start Time, {@link EventInstance#notSet} if not set
+	 */
+	String startTime = EventInstance.notSet;
+	/**
+	 * The Stop Time, {@link EventInstance#notSet} if not set
+	 */
+	String stopTime = EventInstance.notSet;
+	/**
+	 * If maybe position is on/off
+	 */
+	boolean maybeToggle = false;
+	/**
+	 * If backup position is on/off
+	 */
+	boolean backupToggle = false;
+	/**
+	 * If voting is on/off
+	 */
+	boolean vote = false;
+	/**
+	 * The ID of the User of the Private Chat with the Commands Message
+	 */
+	long commandsUserId;
+	/**
+	 * The ID of the Message in the Private Chat with the Commands
+	 */
+	long commandsMessageId;
+	/**
+	 * The ID of the User of the Private Chat with the private Embed Message
+	 */
+	long privateEmbedUserId;
+	/**
+	 * The ID of the Embed Message in the Private Chat
+	 */
+	long privateEmbedMessageId;
+	/**
+	 * The ID of the Channel where the Event Embed is
+	 */
+	long eventEmbedChannelId;
+	/**
+	 * The ID of the Embed Message with the Event
+	 */
+	long eventEmbedMessageId;
+	/**
+	 * The Users in the maybe position
+	 */
+	final ArrayList<Long> maybeUsers = new ArrayList<>();
+	/**
+	 * The Users in the backup position
+	 */
+	final ArrayList<Long> backupUsers = new ArrayList<>();
+	/**
+	 * The Locations
+	 */
+	final List<LocationData> locations = new ArrayList<>();
+	
+	/**
+	 * Converts all Events to their saved form
+	 *
+	 * @param eventsMap The Events mapped to the ID of their owner
+	 *
+	 * @return The saved form of the Event Groups
+	 */
+	static List<GroupData> of(@Nonnull Map<Long, EventGroup> eventsMap) {
+		List<GroupData> groups = new ArrayList<>();
+		eventsMap.forEach((ownerId, group) -> {
+			GroupData groupData = new GroupData(ownerId);
+			groupData.activeIndex = group.getActiveIndex();
+			for (int i = 0; i < group.size(); i++)
+				groupData.events.add(of(group.get(i)));
+			groups.add(groupData);
+		});
+		return groups;
+	}
+	
+	/**
+	 * Converts one Event to its saved form
+	 *
+	 * @param eventInstance The Event
+	 *
+	 * @return The saved form of the Event
+	 */
+	static EventData of(@Nonnull EventInstance eventInstance) {
+		EventData data = new EventData();
+		data.guildId = eventInstance.guild.getIdLong();
+		data.title = eventInstance.getTitle();
+		data.description = eventInstance.getDescription();
+		data.eventDate = eventInstance.getEventDate();
+		data.startTime = eventInstance.getStartTime();
+		data.stopTime = eventInstance.getStopTime();
+		data.maybeToggle = eventInstance.maybeToggle;
+		data.backupToggle = eventInstance.backupToggle;
+		data.vote = eventInstance.vote;
+		data.commandsUserId = eventInstance.commandsMessage.userId;
+		data.commandsMessageId = eventInstance.commandsMessage.messageId;
+		data.privateEmbedUserId = eventInstance.eventPrivateEmbedMessage.userId;
+		data.privateEmbedMessageId = eventInstance.eventPrivateEmbedMessage.messageId;
+		data.eventEmbedChannelId = eventInstance.eventEmbedMessageChannel.getIdLong();
+		data.eventEmbedMessageId = eventInstance.eventEmbedMessageId;
+		data.maybeUsers.addAll(eventInstance.maybeUsers);
+		data.backupUsers.addAll(eventInstance.backupUsers);
+		for (Location location : eventInstance.locations) {
+			LocationData locationData = new LocationData(location.location);
+			locationData.positions.addAll(location.positions);
+			locationData.users.addAll(location.users);
+			locationData.userPositions.addAll(location.userPositions);
+			data.locations.add(locationData);
+		}
+		return data;
+	}
+	
+	/**
+	 * The saved form of all Events of one User
+	 */
+	static class GroupData {
+		
+		/**
+		 * The ID of the User that created the Events
+		 */
+		final long ownerId;
+		/**
+		 * The Events
+		 */
+		final List<EventData> events = new ArrayList<>();
+		/**
+		 * Index of the active Event, 0-based
+		 */
+		int activeIndex = 0;
+		
+		/**
+		 * Creates an empty group
+		 *
+		 * @param ownerId The ID of the User that created the Events
+		 */
+		GroupData(long ownerId) {
+			this.ownerId = ownerId;
+		}
+		
+	}
+	
+	/**
+	 * The saved form of one Location
+	 */
+	static class LocationData {
+		
+		/**
+		 * The Location Title
+		 */
+		final String name;
+		/**
+		 * The Positions
+		 */
+		final ArrayList<String> positions = new ArrayList<>();
+		/**
+		 * The Users in the positions
+		 */
+		final ArrayList<Long> users = new ArrayList<>();
+		/**
+		 * The Positions of the users, same order as {@link #users}
+		 */
+		final ArrayList<String> userPositions = new ArrayList<>();
+		
+		/**
+		 * Creates an empty Location
+		 *
+		 * @param name The Location Title
+		 */
+		LocationData(@Nonnull String name) {
+			this.name = name;
+		}
+		
+	}
+	
+}
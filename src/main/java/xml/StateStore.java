@@ -0,0 +1,897 @@
+package xml;
+
+import bot.BotMain;
+import commands.event.EventGroup;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.dv8tion.jda.api.JDA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+/**
+ * Persists the Countdowns, Timezones and Events, each domain in its own File, so that saving one
+ * domain doesn't rewrite the others and the Config.xml only contains the static configuration.
+ * <p>
+ * Changes to single Countdowns and Timezones are appended to the log of their domain instead of
+ * rewriting the whole File. When a log reaches {@code JournalCompaction} records, or when all
+ * values of a domain are replaced at once, the File of the domain is rewritten and its log is
+ * emptied. The Events are only saved as a whole.
+ * <p>
+ * With {@code StateFormat} set to {@code binary}, the Events and Timezones are saved in the
+ * {@link BinarySnapshot} format instead of XML. The Files are converted at their next write.
+ * <p>
+ * The values are changed immediately in memory, the Files are written behind on a single I/O
+ * Thread. Changes that arrive while a write is still waiting are written together with it, call
+ * {@link #flush()} to wait until everything is written
+ */
+public class StateStore {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("State Store");
+	/**
+	 * The name of the binary Timezones File
+	 */
+	private static final String TIMEZONES_BINARY_FILE_NAME = "Timezones.bin";
+	/**
+	 * The name of the binary Events File
+	 */
+	private static final String EVENTS_BINARY_FILE_NAME = "Events.bin";
+	/**
+	 * Record type: a value was added or changed
+	 */
+	private static final byte PUT = 1;
+	/**
+	 * Record type: a value was removed
+	 */
+	private static final byte REMOVE = 2;
+	/**
+	 * Record type: all values were removed, written before the values when a compaction failed
+	 */
+	private static final byte CLEAR = 3;
+	/**
+	 * The single Thread that writes the Files
+	 */
+	private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "State Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**
+	 * Amount of writes that were done
+	 */
+	private static final AtomicLong flushes = new AtomicLong();
+	/**
+	 * Amount of changes that were added to a write that was already waiting
+	 */
+	private static final AtomicLong coalescedWrites = new AtomicLong();
+	/**
+	 * Sum of the time in nanoseconds the writes took
+	 */
+	private static final AtomicLong totalFlushTime = new AtomicLong();
+	/**
+	 * Converts a Timezone for the log
+	 */
+	private static final ValueCodec<String> TIMEZONE_CODEC = new ValueCodec<>() {
+		@Override
+		public void write(DataOutputStream out, String timezone) throws IOException {
+			out.writeUTF(timezone);
+		}
+		
+		@Override
+		public String read(DataInputStream in) throws IOException {
+			return in.readUTF();
+		}
+	};
+	/**
+	 * Converts a Countdown for the log
+	 */
+	private static final ValueCodec<String[]> COUNTDOWN_CODEC = new ValueCodec<>() {
+		@Override
+		public void write(DataOutputStream out, String[] infos) throws IOException {
+			for (String info : infos)
+				out.writeUTF(info);
+		}
+		
+		@Override
+		public String[] read(DataInputStream in) throws IOException {
+			return new String[]{in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()};
+		}
+	};
+	/**
+	 * The Timezones mapped to the User ID
+	 */
+	private static final Domain<String> timezones = new Domain<>(XMLParser.TIMEZONES_FILE_NAME,
+			StateStore::readTimezones, StateStore::writeTimezones, TIMEZONE_CODEC);
+	/**
+	 * The Countdowns mapped to their Message ID, with the layout of
+	 * {@link commands.Countdowns.Countdown#getInfos()}
+	 */
+	private static final Domain<String[]> countdowns = new Domain<>(
+			XMLParser.COUNTDOWNS_FILE_NAME, StateStore::readCountdowns,
+			StateStore::writeCountdowns, COUNTDOWN_CODEC);
+	/**
+	 * The Events that still need to be written
+	 */
+	private static List<EventData.GroupData> pendingEvents = null;
+	/**
+	 * If a write is already waiting on the {@link #writer}
+	 */
+	private static boolean scheduled = false;
+	/**
+	 * If the domains are loaded
+	 */
+	private static boolean loaded = false;
+	
+	/**
+	 * Will retrieve the saved Timezones
+	 *
+	 * @return A copy of all saved Timezones. Can be empty
+	 */
+	public static synchronized Map<Long, String> getTimezones() {
+		load();
+		return new HashMap<>(timezones.values);
+	}
+	
+	/**
+	 * Will save the Timezone of one User
+	 *
+	 * @param userId The ID of the User
+	 * @param timezone The Timezone of the User
+	 */
+	public static synchronized void putTimezone(long userId, @Nonnull String timezone) {
+		load();
+		if (!timezone.equals(timezones.values.get(userId))) // only if something changed
+			timezones.put(userId, timezone);
+	}
+	
+	/**
+	 * Will remove the saved Timezone of one User
+	 *
+	 * @param userId The ID of the User
+	 */
+	public static synchronized void removeTimezone(long userId) {
+		load();
+		timezones.remove(userId);
+	}
+	
+	/**
+	 * Will replace all saved Timezones. The Timezones.xml is only rewritten if something changed
+	 *
+	 * @param newTimezones The new Timezones
+	 */
+	public static synchronized void replaceTimezones(@Nonnull Map<Long, String> newTimezones) {
+		load();
+		if (!timezones.values.equals(newTimezones))
+			timezones.replace(newTimezones);
+	}
+	
+	/**
+	 * Will get the saved Countdowns
+	 *
+	 * @return A List with the Countdowns that were saved, with the layout of
+	 *        {@link commands.Countdowns.Countdown#getInfos()}. Can be empty
+	 */
+	public static synchronized List<String[]> getCountdowns() {
+		load();
+		return new ArrayList<>(countdowns.values.values());
+	}
+	
+	/**
+	 * Will save one Countdown
+	 *
+	 * @param infos The Countdown with the layout of
+	 *        {@link commands.Countdowns.Countdown#getInfos()}
+	 */
+	public static synchronized void putCountdown(@Nonnull String[] infos) {
+		load();
+		countdowns.put(Long.parseLong(infos[1]), infos);
+	}
+	
+	/**
+	 * Will remove one saved Countdown
+	 *
+	 * @param messageId The Message ID of the Countdown
+	 */
+	public static synchronized void removeCountdown(long messageId) {
+		load();
+		countdowns.remove(messageId);
+	}
+	
+	/**
+	 * Will replace all saved Countdowns and rewrite the Countdowns.xml
+	 *
+	 * @param newCountdowns The new Countdowns with the layout of
+	 *        {@link commands.Countdowns.Countdown#getInfos()}
+	 */
+	public static synchronized void replaceCountdowns(@Nonnull Collection<String[]> newCountdowns) {
+		load();
+		Map<Long, String[]> values = new LinkedHashMap<>();
+		newCountdowns.forEach(infos -> values.put(Long.parseLong(infos[1]), infos));
+		countdowns.replace(values);
+	}
+	
+	/**
+	 * Will get all saved Events
+	 *
+	 * @param jda The JDA to create the Events
+	 *
+	 * @return The HashMap with all Events
+	 */
+	public static HashMap<Long, EventGroup> getEvents(@Nonnull JDA jda) {
+		List<EventData.GroupData> events;
+		synchronized (StateStore.class) {
+			// Events that are not written yet are newer than the ones in the File
+			events = pendingEvents;
+		}
+		return XMLParser.createEvents(jda, events != null ? events : readEvents());
+	}
+	
+	/**
+	 * Will save the given Events. The Events are converted to their saved form immediately, so
+	 * they can change again while the File is written
+	 *
+	 * @param eventsMap The Events to save
+	 */
+	public static void saveEvents(@Nonnull Map<Long, EventGroup> eventsMap) {
+		List<EventData.GroupData> events = EventData.of(eventsMap);
+		synchronized (StateStore.class) {
+			pendingEvents = events; // replaces Events that are not written yet
+			schedule();
+		}
+	}
+	
+	/**
+	 * Waits until all changes made before this call are written
+	 */
+	public static void flush() {
+		try {
+			writer.submit(() -> {}).get(); // the writer runs everything in order
+		} catch (InterruptedException | ExecutionException e) {
+			logger.error("Could not wait for the State to be written", e);
+		}
+	}
+	
+	/**
+	 * Returns the amount of changes that are waiting to be written
+	 *
+	 * @return The current queue depth
+	 */
+	public static synchronized int getQueueDepth() {
+		return timezones.getQueueDepth() + countdowns.getQueueDepth()
+				+ (pendingEvents != null ? 1 : 0);
+	}
+	
+	/**
+	 * Returns the amount of writes that were done
+	 *
+	 * @return The amount of writes
+	 */
+	public static long getFlushes() {
+		return flushes.get();
+	}
+	
+	/**
+	 * Returns the amount of changes that were added to a write that was already waiting
+	 *
+	 * @return The amount of coalesced writes
+	 */
+	public static long getCoalescedWrites() {
+		return coalescedWrites.get();
+	}
+	
+	/**
+	 * Returns the average time the writes took
+	 *
+	 * @return The average write time in milliseconds
+	 */
+	public static double getAverageFlushTime() {
+		long done = flushes.get();
+		return done == 0 ? 0 : totalFlushTime.get() / 1_000_000d / done;
+	}
+	
+	/**
+	 * Checks if the Events and Timezones should be saved in the binary format
+	 *
+	 * @return {@code true} if {@code StateFormat} is {@code binary}
+	 */
+	private static boolean useBinary() {
+		return "binary".equalsIgnoreCase(BotMain.getConfig().settings.get("StateFormat"));
+	}
+	
+	/**
+	 * Checks if a domain should be read from its binary File. That is the case if the binary
+	 * File exists and either the binary format is configured or there is no XML File
+	 *
+	 * @param xmlFileName The name of the XML File
+	 * @param binaryFileName The name of the binary File
+	 *
+	 * @return {@code true} if the binary File should be read
+	 */
+	private static boolean readBinary(String xmlFileName, String binaryFileName) {
+		return new File(binaryFileName).exists()
+				&& (useBinary() || !new File(xmlFileName).exists());
+	}
+	
+	/**
+	 * Deletes the File of the format that is not used anymore, after the other format was written
+	 *
+	 * @param fileName The name of the File
+	 */
+	private static void deleteOtherFormat(String fileName) {
+		File file = new File(fileName);
+		if (file.exists() && !file.delete())
+			logger.warn("Could not delete the " + fileName);
+	}
+	
+	/**
+	 * Reads the saved Timezones from the binary or the XML File
+	 *
+	 * @return The Timezones mapped to the User ID
+	 */
+	private static Map<Long, String> readTimezones() {
+		if (readBinary(XMLParser.TIMEZONES_FILE_NAME, TIMEZONES_BINARY_FILE_NAME)) {
+			try {
+				return BinarySnapshot.readTimezones(new File(TIMEZONES_BINARY_FILE_NAME));
+			} catch (IOException e) {
+				logger.error("Could not read the " + TIMEZONES_BINARY_FILE_NAME
+						+ ", reading the " + XMLParser.TIMEZONES_FILE_NAME, e);
+			}
+		}
+		return XMLParser
+				.readTimezones(XMLParser.getDomainDocument(XMLParser.TIMEZONES_FILE_NAME));
+	}
+	
+	/**
+	 * Writes the Timezones in the configured format, runs on the {@link #writer} Thread
+	 *
+	 * @param values The Timezones mapped to the User ID
+	 *
+	 * @return {@code true} if the File was written
+	 */
+	private static boolean writeTimezones(Map<Long, String> values) {
+		if (useBinary()) {
+			try {
+				XMLParser.writeFile(TIMEZONES_BINARY_FILE_NAME,
+						output -> BinarySnapshot.writeTimezones(output, values));
+			} catch (IOException e) {
+				logger.error("Could not save the " + TIMEZONES_BINARY_FILE_NAME, e);
+				return false;
+			}
+			deleteOtherFormat(XMLParser.TIMEZONES_FILE_NAME);
+		} else {
+			Document doc = XMLParser.newDocument();
+			XMLParser.writeTimezones(doc, values);
+			if (!XMLParser.writeDocument(doc, XMLParser.TIMEZONES_FILE_NAME))
+				return false;
+			deleteOtherFormat(TIMEZONES_BINARY_FILE_NAME);
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads the saved Countdowns from the Countdowns.xml
+	 *
+	 * @return The Countdowns mapped to their Message ID
+	 */
+	private static Map<Long, String[]> readCountdowns() {
+		Map<Long, String[]> values = new LinkedHashMap<>();
+		XMLParser.readCountdowns(XMLParser.getDomainDocument(XMLParser.COUNTDOWNS_FILE_NAME))
+				.forEach(infos -> values.put(Long.parseLong(infos[1]), infos));
+		return values;
+	}
+	
+	/**
+	 * Writes the Countdowns in the Countdowns.xml, runs on the {@link #writer} Thread
+	 *
+	 * @param values The Countdowns mapped to their Message ID
+	 *
+	 * @return {@code true} if the File was written
+	 */
+	private static boolean writeCountdowns(Map<Long, String[]> values) {
+		Document doc = XMLParser.newDocument();
+		XMLParser.writeCountdowns(doc, values.values());
+		return XMLParser.writeDocument(doc, XMLParser.COUNTDOWNS_FILE_NAME);
+	}
+	
+	/**
+	 * Reads the saved Events from the binary or the XML File
+	 *
+	 * @return The saved form of the Event Groups
+	 */
+	private static List<EventData.GroupData> readEvents() {
+		if (readBinary(XMLParser.EVENTS_FILE_NAME, EVENTS_BINARY_FILE_NAME)) {
+			try {
+				return BinarySnapshot.readEvents(new File(EVENTS_BINARY_FILE_NAME));
+			} catch (IOException e) {
+				logger.error("Could not read the " + EVENTS_BINARY_FILE_NAME + ", reading the "
+						+ XMLParser.EVENTS_FILE_NAME, e);
+			}
+		}
+		return XMLParser.readEvents(XMLParser.getDomainDocument(XMLParser.EVENTS_FILE_NAME));
+	}
+	
+	/**
+	 * Writes the Events in the configured format, runs on the {@link #writer} Thread
+	 *
+	 * @param groups The saved form of the Event Groups
+	 *
+	 * @return {@code true} if the File was written
+	 */
+	private static boolean writeEvents(List<EventData.GroupData> groups) {
+		if (useBinary()) {
+			try {
+				XMLParser.writeFile(EVENTS_BINARY_FILE_NAME,
+						output -> BinarySnapshot.writeEvents(output, groups));
+			} catch (IOException e) {
+				logger.error("Could not save the " + EVENTS_BINARY_FILE_NAME, e);
+				return false;
+			}
+			deleteOtherFormat(XMLParser.EVENTS_FILE_NAME);
+		} else {
+			Document doc = XMLParser.newDocument();
+			XMLParser.writeEvents(doc, groups);
+			if (!XMLParser.writeDocument(doc, XMLParser.EVENTS_FILE_NAME))
+				return false;
+			deleteOtherFormat(EVENTS_BINARY_FILE_NAME);
+		}
+		return true;
+	}
+	
+	/**
+	 * Loads the domains, if not already done
+	 */
+	private static void load() {
+		if (loaded)
+			return;
+		loaded = true;
+		timezones.load();
+		countdowns.load();
+		if (!new File(useBinary() ? TIMEZONES_BINARY_FILE_NAME : XMLParser.TIMEZONES_FILE_NAME)
+				.exists())
+			timezones.requestCompaction(); // convert to the configured format
+	}
+	
+	/**
+	 * Reads one length prefixed record
+	 *
+	 * @param in The Stream of the log
+	 *
+	 * @return The content of the record, or null at the end of the log or if the last record
+	 * 		wasn't fully written
+	 *
+	 * @throws IOException If the log could not be read
+	 */
+	@Nullable
+	private static DataInputStream readRecord(@Nonnull DataInputStream in) throws IOException {
+		try {
+			byte[] record = new byte[in.readInt()];
+			in.readFully(record);
+			return new DataInputStream(new ByteArrayInputStream(record));
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Submits a write to the {@link #writer} if none is already waiting. Has to be called while
+	 * holding the lock of this class
+	 */
+	private static void schedule() {
+		if (scheduled) {
+			coalescedWrites.incrementAndGet();
+			return;
+		}
+		scheduled = true;
+		writer.execute(StateStore::writePending);
+	}
+	
+	/**
+	 * Writes all changes that are waiting, runs on the {@link #writer} Thread
+	 */
+	private static void writePending() {
+		long start = System.nanoTime();
+		Runnable timezonesWrite;
+		Runnable countdownsWrite;
+		List<EventData.GroupData> events;
+		synchronized (StateStore.class) {
+			scheduled = false; // changes from now on need a new write
+			timezonesWrite = timezones.takePending();
+			countdownsWrite = countdowns.takePending();
+			events = pendingEvents;
+			pendingEvents = null;
+		}
+		if (timezonesWrite != null)
+			timezonesWrite.run();
+		if (countdownsWrite != null)
+			countdownsWrite.run();
+		if (events != null) {
+			logger.info("Saving the Events");
+			if (!writeEvents(events)) {
+				synchronized (StateStore.class) {
+					if (pendingEvents == null) // retried with the next write
+						pendingEvents = events;
+				}
+			}
+		}
+		totalFlushTime.addAndGet(System.nanoTime() - start);
+		flushes.incrementAndGet();
+	}
+	
+	/**
+	 * Converts the values of a domain for the log
+	 *
+	 * @param <V> The type of the values
+	 */
+	private interface ValueCodec<V> {
+		
+		/**
+		 * Writes one value
+		 *
+		 * @param out The Stream of the record
+		 * @param value The value
+		 *
+		 * @throws IOException If the value could not be written
+		 */
+		void write(DataOutputStream out, V value) throws IOException;
+		
+		/**
+		 * Reads one value
+		 *
+		 * @param in The Stream of the record
+		 *
+		 * @return The value
+		 *
+		 * @throws IOException If the value could not be read
+		 */
+		V read(DataInputStream in) throws IOException;
+		
+	}
+	
+	/**
+	 * Writes all values of a domain in its File
+	 *
+	 * @param <V> The type of the values
+	 */
+	@FunctionalInterface
+	private interface Saver<V> {
+		
+		/**
+		 * Writes the values
+		 *
+		 * @param values The values
+		 *
+		 * @return {@code true} if the File was written
+		 */
+		boolean save(Map<Long, V> values);
+		
+	}
+	
+	/**
+	 * Writes the content of one record
+	 */
+	@FunctionalInterface
+	private interface RecordWriter {
+		
+		/**
+		 * Writes the content of the record
+		 *
+		 * @param out The Stream of the record
+		 *
+		 * @throws IOException If the content could not be written
+		 */
+		void write(DataOutputStream out) throws IOException;
+		
+	}
+	
+	/**
+	 * One domain with its File and its log. Everything except the {@link #journal} is guarded
+	 * by the lock of {@link StateStore}
+	 *
+	 * @param <V> The type of the values
+	 */
+	private static class Domain<V> {
+		
+		/**
+		 * The name of the File
+		 */
+		private final String fileName;
+		/**
+		 * The File with the changes since the last compaction
+		 */
+		private final File journalFile;
+		/**
+		 * Reads the values from the File
+		 */
+		private final Supplier<Map<Long, V>> reader;
+		/**
+		 * Writes the values in the File
+		 */
+		private final Saver<V> saver;
+		/**
+		 * Converts the values for the log
+		 */
+		private final ValueCodec<V> codec;
+		/**
+		 * The saved values, null until {@link #load()} was called
+		 */
+		private Map<Long, V> values = null;
+		/**
+		 * Amount of records in the log, including the ones that are not written yet
+		 */
+		private int journalRecords = 0;
+		/**
+		 * The records that still need to be appended to the log
+		 */
+		private List<byte[]> pendingRecords = new ArrayList<>();
+		/**
+		 * If the File needs to be rewritten with the current values
+		 */
+		private boolean compactionPending = false;
+		/**
+		 * The open log, only used on the {@link #writer} Thread
+		 */
+		private DataOutputStream journal = null;
+		
+		/**
+		 * Creates a new domain
+		 *
+		 * @param fileName The name of the File
+		 * @param reader Reads the values from the File
+		 * @param saver Writes the values in the File
+		 * @param codec Converts the values for the log
+		 */
+		private Domain(String fileName, Supplier<Map<Long, V>> reader,
+				Saver<V> saver, ValueCodec<V> codec) {
+			this.fileName = fileName;
+			this.journalFile = new File(fileName.replace(".xml", ".log"));
+			this.reader = reader;
+			this.saver = saver;
+			this.codec = codec;
+		}
+		
+		/**
+		 * Reads the File and replays the log on top of it
+		 */
+		private void load() {
+			values = new LinkedHashMap<>(reader.get());
+			if (!journalFile.exists())
+				return;
+			int replayed = 0;
+			try (DataInputStream in = new DataInputStream(new FileInputStream(journalFile))) {
+				DataInputStream record;
+				while ((record = readRecord(in)) != null) {
+					switch (record.readByte()) {
+						case PUT -> values.put(record.readLong(), codec.read(record));
+						case REMOVE -> values.remove(record.readLong());
+						case CLEAR -> values.clear();
+						default -> logger.warn("Unknown record in the " + journalFile.getName());
+					}
+					replayed++;
+				}
+			} catch (IOException e) {
+				logger.error("Could not read the " + journalFile.getName()
+						+ ", the last changes may be lost", e);
+			}
+			if (replayed > 0) { // start with an empty log
+				logger.info("Replayed " + replayed + " changes from the " + journalFile.getName());
+				requestCompaction();
+			}
+		}
+		
+		/**
+		 * Adds or changes a value
+		 *
+		 * @param key The key of the value
+		 * @param value The value
+		 */
+		private void put(long key, @Nonnull V value) {
+			values.put(key, value);
+			append(PUT, out -> {
+				out.writeLong(key);
+				codec.write(out, value);
+			});
+		}
+		
+		/**
+		 * Removes a value
+		 *
+		 * @param key The key of the value
+		 */
+		private void remove(long key) {
+			if (values.remove(key) != null)
+				append(REMOVE, out -> out.writeLong(key));
+		}
+		
+		/**
+		 * Replaces all values and rewrites the File
+		 *
+		 * @param newValues The new values
+		 */
+		private void replace(@Nonnull Map<Long, V> newValues) {
+			values = new LinkedHashMap<>(newValues);
+			requestCompaction();
+		}
+		
+		/**
+		 * Adds a record for the log and requests a compaction if the log is too long
+		 *
+		 * @param type The type of the record
+		 * @param payload Writes the content of the record
+		 */
+		private void append(byte type, @Nonnull RecordWriter payload) {
+			try {
+				pendingRecords.add(toRecord(type, payload));
+			} catch (IOException e) { // can't happen when writing to memory
+				requestCompaction();
+				return;
+			}
+			if (++journalRecords >= BotMain.getSetting("JournalCompaction", 1000))
+				requestCompaction();
+			else
+				schedule();
+		}
+		
+		/**
+		 * Creates one length prefixed record
+		 *
+		 * @param type The type of the record
+		 * @param payload Writes the content of the record
+		 *
+		 * @return The record
+		 *
+		 * @throws IOException If the content could not be written
+		 */
+		private byte[] toRecord(byte type, @Nonnull RecordWriter payload) throws IOException {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			DataOutputStream contentOut = new DataOutputStream(content);
+			contentOut.writeByte(type);
+			payload.write(contentOut);
+			ByteArrayOutputStream record = new ByteArrayOutputStream();
+			DataOutputStream recordOut = new DataOutputStream(record);
+			// the length first, so that a record that wasn't fully written can be detected
+			recordOut.writeInt(content.size());
+			content.writeTo(recordOut);
+			return record.toByteArray();
+		}
+		
+		/**
+		 * Requests that the File is rewritten with the current values, this replaces all
+		 * records that are not written yet
+		 */
+		private void requestCompaction() {
+			synchronized (StateStore.class) {
+				compactionPending = true;
+				journalRecords = 0;
+				schedule();
+			}
+		}
+		
+		/**
+		 * Returns the amount of changes that are waiting to be written
+		 *
+		 * @return The amount of changes
+		 */
+		private int getQueueDepth() {
+			return pendingRecords.size() + (compactionPending ? 1 : 0);
+		}
+		
+		/**
+		 * Takes the changes that are waiting. Has to be called while holding the lock of
+		 * {@link StateStore}
+		 *
+		 * @return The write of the changes, to run on the {@link #writer} Thread without the lock,
+		 * 		or null if nothing is waiting
+		 */
+		@Nullable
+		private Runnable takePending() {
+			if (compactionPending) { // the records are already in the copied values
+				compactionPending = false;
+				pendingRecords = new ArrayList<>();
+				Map<Long, V> copy = new LinkedHashMap<>(values);
+				return () -> compact(copy);
+			}
+			if (pendingRecords.isEmpty())
+				return null;
+			List<byte[]> records = pendingRecords;
+			pendingRecords = new ArrayList<>();
+			return () -> writeRecords(records);
+		}
+		
+		/**
+		 * Appends the records to the log, runs on the {@link #writer} Thread
+		 *
+		 * @param records The records to append
+		 */
+		private void writeRecords(@Nonnull List<byte[]> records) {
+			try {
+				appendToJournal(records);
+			} catch (IOException e) {
+				logger.error("Could not write to the " + journalFile.getName()
+						+ ", saving everything in the " + fileName, e);
+				requestCompaction();
+			}
+		}
+		
+		/**
+		 * Appends the records to the log and flushes it, runs on the {@link #writer} Thread
+		 *
+		 * @param records The records to append
+		 *
+		 * @throws IOException If the log could not be written
+		 */
+		private void appendToJournal(@Nonnull List<byte[]> records) throws IOException {
+			if (journal == null)
+				journal = new DataOutputStream(
+						new BufferedOutputStream(new FileOutputStream(journalFile, true)));
+			for (byte[] record : records)
+				journal.write(record);
+			journal.flush();
+		}
+		
+		/**
+		 * Writes the values in the File and empties the log, runs on the {@link #writer}
+		 * Thread. If the File could not be written, the log is kept and all values are appended
+		 * to it, so that no change is lost, and the compaction is retried with the next write
+		 *
+		 * @param copy The values to write
+		 */
+		private void compact(@Nonnull Map<Long, V> copy) {
+			logger.info("Saving the " + fileName);
+			if (!saver.save(copy)) {
+				try {
+					// the values may come from a replace, which has no records in the log
+					List<byte[]> records = new ArrayList<>();
+					records.add(toRecord(CLEAR, out -> {}));
+					for (Map.Entry<Long, V> entry : copy.entrySet())
+						records.add(toRecord(PUT, out -> {
+							out.writeLong(entry.getKey());
+							codec.write(out, entry.getValue());
+						}));
+					appendToJournal(records);
+				} catch (IOException e) {
+					logger.error("Could not write to the " + journalFile.getName()
+							+ ", the last changes may be lost", e);
+				}
+				synchronized (StateStore.class) {
+					compactionPending = true; // no schedule, the disk may still be failing
+				}
+				return;
+			}
+			try {
+				if (journal != null) {
+					journal.close();
+					journal = null;
+				}
+				new FileOutputStream(journalFile).close(); // truncate the log
+			} catch (IOException e) {
+				logger.error("Could not empty the " + journalFile.getName(), e);
+			}
+		}
+		
+	}
+	
+}
@@ -1,24 +1,37 @@
 package xml;
 
-import commands.Countdowns.CountdownsThread;
+import commands.Countdowns.Countdown;
+import commands.event.EventGroup;
 import commands.event.EventInstance;
 import commands.event.Location;
+import commands.event.PrivateMessage;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -31,9 +44,7 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.entities.MessageChannel;
-import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.TextChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Attr;
@@ -48,6 +59,10 @@ public class XMLParser {
 	private static final Logger logger = LoggerFactory.getLogger("XMLParser");
 	
 	private static final String CONFIG_FILE_NAME = "Config.xml";
+	static final String COUNTDOWNS_FILE_NAME = "Countdowns.xml";
+	static final String TIMEZONES_FILE_NAME = "Timezones.xml";
+	static final String EVENTS_FILE_NAME = "Events.xml";
+	private static final int BACKUP_GENERATIONS = 3; // previous versions kept of every File
 	
 	// Bot Token
 	private static final String BOT_TOKEN_TAG = "BotToken";
@@ -64,6 +79,10 @@ public class XMLParser {
 	private static final String SYSTEM_LOG_TAG = "SystemLogs";
 	// End Roles
 	
+	// Settings
+	private static final String SETTINGS_TAG = "Settings";
+	// End Settings
+	
 	// Timezones
 	private static final String TIMEZONES_TAG = "Timezones";
 	private static final String USER_TAG = "User"; // used by Event
@@ -154,6 +173,13 @@ public class XMLParser {
 					    <Trained><!--Put here the Role ID of the Trained Role--></Trained>
 					    <SystemLogs><!--Put here the Channel ID of the System Logs Channel-->></SystemLogs>
 					  </Roles>
+					  <Settings> <!--All Settings are optional, these are the default values-->
+					    <EmbedUpdateWindow>1000</EmbedUpdateWindow> <!--Milliseconds between two edits of an Event Embed-->
+					    <CommandWorkers>4</CommandWorkers> <!--Threads that run Commands and Reactions-->
+					    <CommandQueueSize>100</CommandQueueSize> <!--Maximum waiting Commands per Thread-->
+					    <JournalCompaction>1000</JournalCompaction> <!--Changes in a .log before its File is rewritten-->
+					    <StateFormat>xml</StateFormat> <!--xml or binary, the format of the Events and Timezones Files-->
+					  </Settings>
 					  <Telegram> <!--Remove this Tag if you don't want a Telegram Bot to send you Logs-->
 					    <MainBot username=""><!--Put here the Main Telegram Bot Username-->
 					      <!--Put here the Main Telegram Bot Token-->
@@ -178,29 +204,125 @@ public class XMLParser {
 	 */
 	private static Document getDocument() {
 		try {
-			File inputFile = new File(CONFIG_FILE_NAME);
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+					.parse(getConfigFile());
+		} catch (ParserConfigurationException | IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} catch (SAXException e) {
+			xmlFormatException("something went wrong while parsing the xml");
+		}
+		return null; // will never get there
+	}
+	
+	/**
+	 * Will get the Config.xml File or, if not present, create a dummy one and exit
+	 *
+	 * @return The Config.xml File
+	 */
+	private static File getConfigFile() {
+		File inputFile = new File(CONFIG_FILE_NAME);
+		try {
 			if (inputFile.createNewFile()) {
 				saveDummyDocument(inputFile);
 				logger.error("There was no " + CONFIG_FILE_NAME
 						+ " available. Created a dummy one. Please fill it out");
 				System.exit(1);
 			}
-			return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(inputFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return inputFile;
+	}
+	
+	/**
+	 * Will get the File of one domain. If it is not present, the domain is moved from the
+	 * Config.xml to a new File
+	 *
+	 * @param fileName {@link #COUNTDOWNS_FILE_NAME}, {@link #TIMEZONES_FILE_NAME} or
+	 *        {@link #EVENTS_FILE_NAME}
+	 *
+	 * @return The Document
+	 */
+	static synchronized Document getDomainDocument(String fileName) {
+		try {
+			File domainFile = new File(fileName);
+			if (!domainFile.exists())
+				migrateDomain(fileName);
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(domainFile);
 		} catch (ParserConfigurationException | IOException e) {
+			logger.error("Could not get the " + fileName + ", stopping so that nothing is lost");
 			e.printStackTrace();
 			System.exit(1);
 		} catch (SAXException e) {
-			xmlFormatException("something went wrong while parsing the xml");
+			xmlFormatException("something went wrong while parsing the " + fileName);
+		}
+		return null; // will never get there
+	}
+	
+	/**
+	 * Will create a new Document that only has the root Element
+	 *
+	 * @return The Document
+	 */
+	static Document newDocument() {
+		try {
+			Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			doc.appendChild(doc.createElement("root"));
+			return doc;
+		} catch (ParserConfigurationException e) {
+			e.printStackTrace();
+			System.exit(1);
 		}
 		return null; // will never get there
 	}
 	
 	/**
-	 * Will write the new XML file to Config.xml
+	 * Moves one domain from the Config.xml to its own File. The domain is only removed from the
+	 * Config.xml after its own File was written
+	 *
+	 * @param fileName The name of the File of the domain
+	 *
+	 * @throws IOException If the Config.xml could not be read or the new File not written, nothing
+	 * 		was changed then
+	 */
+	private static void migrateDomain(String fileName) throws IOException {
+		String tag = switch (fileName) {
+			case COUNTDOWNS_FILE_NAME -> COUNTDOWNS_TAG;
+			case TIMEZONES_FILE_NAME -> TIMEZONES_TAG;
+			case EVENTS_FILE_NAME -> EVENTS_TAG;
+			default -> throw new IllegalArgumentException("Unknown domain File " + fileName);
+		};
+		Document config;
+		try {
+			config = getDocument();
+		} catch (ParserConfigurationException | SAXException e) {
+			// don't write an empty domain File, it would hide the old data on every start
+			throw new IOException("Could not read the " + CONFIG_FILE_NAME, e);
+		}
+		Document domain = newDocument();
+		NodeList nList = config.getElementsByTagName(tag);
+		if (nList.getLength() == 1)
+			domain.getFirstChild().appendChild(domain.importNode(nList.item(0), true));
+		if (!writeDocument(domain, fileName))
+			throw new IOException("Could not write the " + fileName);
+		if (nList.getLength() == 0)
+			return; // nothing to move
+		nList.item(0).getParentNode().removeChild(nList.item(0));
+		writeDocument(config, CONFIG_FILE_NAME);
+		logger.info("Moved the " + tag + " from the " + CONFIG_FILE_NAME + " to the " + fileName);
+	}
+	
+	/**
+	 * Will write the new XML file, see {@link #writeFile(String, FileContent)}
 	 *
 	 * @param doc The document
+	 * @param fileName The name of the File
+	 *
+	 * @return {@code true} if the File was written
 	 */
-	private static void writeDocument(Document doc) {
+	static boolean writeDocument(Document doc, String fileName) {
 		try {
 			// remove all '\n' and ' '
 			XPathFactory xfact = XPathFactory.newInstance();
@@ -220,80 +342,244 @@ public class XMLParser {
 			transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
 			
 			// save the xml
-			DOMSource source = new DOMSource(doc);
-			StreamResult result = new StreamResult(new File(CONFIG_FILE_NAME));
-			transformer.transform(source, result);
-			logger.info("Saved the Config.xml");
-		} catch (TransformerException | XPathExpressionException e) {
-			logger.error(
-					"Could not save correctly the XML File. See stacktrace for more information");
+			writeFile(fileName, output -> {
+				try {
+					transformer.transform(new DOMSource(doc), new StreamResult(output));
+				} catch (TransformerException e) {
+					throw new IOException(e);
+				}
+			});
+			return true;
+		} catch (TransformerException | XPathExpressionException | IOException e) {
+			logger.error("Could not save correctly the XML File, " + fileName
+					+ " was not changed. See stacktrace for more information");
 			e.printStackTrace();
+			return false;
+		}
+	}
+	
+	/**
+	 * Will write a File. The content is first written and synced to a temporary File that then
+	 * replaces the File, so that a crash while saving never leaves a truncated File. The previous
+	 * versions are kept as {@code fileName.1} to {@code fileName.3}
+	 *
+	 * @param fileName The name of the File
+	 * @param content Writes the content of the File
+	 *
+	 * @throws IOException If the File could not be written, the File is then not changed
+	 */
+	static void writeFile(String fileName, FileContent content) throws IOException {
+		long start = System.nanoTime();
+		Path file = Path.of(fileName);
+		Path tempFile = Path.of(fileName + ".tmp");
+		// write the temporary File and make sure it is on the disk
+		try (FileOutputStream output = new FileOutputStream(tempFile.toFile())) {
+			content.write(output);
+			output.getChannel().force(true);
+		}
+		
+		// keep the previous versions, the File itself is only replaced by the move
+		if (Files.exists(file)) {
+			for (int i = BACKUP_GENERATIONS; i > 1; i--) {
+				Path older = Path.of(fileName + "." + (i - 1));
+				if (Files.exists(older))
+					Files.move(older, Path.of(fileName + "." + i),
+							StandardCopyOption.REPLACE_EXISTING);
+			}
+			Files.copy(file, Path.of(fileName + ".1"), StandardCopyOption.REPLACE_EXISTING);
+		}
+		try {
+			Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
 		}
+		logger.info("Saved the " + fileName + " in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
 	}
 	
 	/**
-	 * Will retrieve the Discord Bot Token
+	 * Will read the static configuration of the Config.xml in one pass
 	 *
-	 * @return The Token
+	 * @return The Config
 	 */
 	@Nonnull
-	public static String getBotToken() {
-		NodeList nList = getDocument().getElementsByTagName(BOT_TOKEN_TAG);
-		if (nList.getLength() == 1) {
-			logger.info("Getting the Bot Token");
-			return readTextElement(nList.item(0));
-		} else
-			xmlFormatException("multiple or no Bot Token Tags");
+	public static Config readConfig() {
+		String token = null;
+		Map<String, Long> roles = null;
+		Map<String, String> settings = null;
+		List<String[]> telegramBots = null;
+		try (FileInputStream input = new FileInputStream(getConfigFile())) {
+			XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+			reader.nextTag(); // the root Element
+			while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+				switch (reader.getLocalName()) {
+					case BOT_TOKEN_TAG -> {
+						if (token != null)
+							xmlFormatException("multiple Bot Token Tags");
+						token = readText(reader);
+						logger.info("Getting the Bot Token");
+					}
+					case ROLES_TAG -> {
+						if (roles != null)
+							xmlFormatException("multiple Role Tags");
+						roles = readRoles(reader);
+						logger.info("Getting the Roles");
+					}
+					case SETTINGS_TAG -> {
+						if (settings != null)
+							xmlFormatException("multiple Settings Tags");
+						settings = new HashMap<>();
+						while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+							settings.put(reader.getLocalName(), readText(reader));
+						logger.info("Getting the Settings");
+					}
+					case TELEGRAM_TAG -> {
+						if (telegramBots != null)
+							xmlFormatException("multiple Telegram Tags");
+						telegramBots = readTelegramBots(reader);
+						logger.info("Got the Telegram Bot information");
+					}
+					default -> skipElement(reader); // for example State left in an old Config.xml
+				}
+			}
+			reader.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} catch (XMLStreamException e) {
+			xmlFormatException("something went wrong while parsing the xml");
+		}
+		if (token == null)
+			xmlFormatException("no Bot Token Tag");
+		if (roles == null)
+			xmlFormatException("no Role Tags");
+		if (settings == null) {
+			logger.info("No Settings set, using the default values");
+			settings = new HashMap<>();
+		}
+		if (telegramBots == null)
+			logger.warn("No Telegram Bot information. You won't get the Telegram Logs");
 		//noinspection ConstantConditions
-		return null; // will never go there
+		return new Config(token, roles, settings, telegramBots);
 	}
 	
 	/**
-	 * Will retrieve the Role and Channel Information
+	 * Will read the Role and Channel Information, the reader has to be at the start of the Roles
+	 * Tag
+	 *
+	 * @param reader The reader of the Config.xml
 	 *
 	 * @return A Map with all the available Roles
+	 *
+	 * @throws XMLStreamException If the XML could not be read
 	 */
 	@Nonnull
-	public static Map<String, Long> getRoles() {
-		NodeList nList = getDocument().getElementsByTagName(ROLES_TAG);
-		if (nList.getLength() == 1) {
+	private static Map<String, Long> readRoles(@Nonnull XMLStreamReader reader)
+			throws XMLStreamException {
+		Map<String, Long> output = new HashMap<>();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String name = reader.getLocalName();
 			try {
-				Map<String, Long> output = new HashMap<>();
-				Element element = (Element) nList.item(0);
-				output.put(GUILD_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(GUILD_TAG).item(0))));
-				output.put(OWNER_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(OWNER_TAG).item(0))));
-				output.put(ADMIN_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(ADMIN_TAG).item(0))));
-				output.put(EVENT_ORGANIZER_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(EVENT_ORGANIZER_TAG).item(0))));
-				output.put(INSTRUCTOR_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(INSTRUCTOR_TAG).item(0))));
-				output.put(TRAINED_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(TRAINED_TAG).item(0))));
-				output.put(SYSTEM_LOG_TAG, Long.parseLong(readTextElement(element
-						.getElementsByTagName(SYSTEM_LOG_TAG).item(0))));
-				logger.info("Getting the Roles");
-				return output;
-			} catch (NullPointerException e) {
-				xmlFormatException("Tag missing in Roles");
+				output.put(name, Long.parseLong(readText(reader)));
 			} catch (NumberFormatException e) {
 				xmlFormatException("Role ID could not be parsed to Long");
 			}
-		} else
-			xmlFormatException("multiple or no Role Tags");
-		//noinspection ConstantConditions
-		return null; // will never go there
+		}
+		for (String tag : new String[]{GUILD_TAG, OWNER_TAG, ADMIN_TAG, EVENT_ORGANIZER_TAG,
+				INSTRUCTOR_TAG, TRAINED_TAG, SYSTEM_LOG_TAG}) {
+			if (!output.containsKey(tag))
+				xmlFormatException("Tag missing in Roles");
+		}
+		return output;
+	}
+	
+	/**
+	 * Will read the Information for the Telegram Bots, the reader has to be at the start of the
+	 * Telegram Tag
+	 *
+	 * @param reader The reader of the Config.xml
+	 *
+	 * @return The Information for the Bots, see {@link Config#telegramBots}
+	 *
+	 * @throws XMLStreamException If the XML could not be read
+	 */
+	@Nonnull
+	private static List<String[]> readTelegramBots(@Nonnull XMLStreamReader reader)
+			throws XMLStreamException {
+		String[] mainBot = null;
+		String[] importantBot = null;
+		String userChannelId = null;
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+				case TELEGRAM_MAIN_BOT_TAG -> mainBot = new String[]{
+						reader.getAttributeValue(null, USERNAME_ATTRIBUTE_TAG), readText(reader)};
+				case TELEGRAM_IMPORTANT_BOT_TAG -> importantBot = new String[]{
+						reader.getAttributeValue(null, USERNAME_ATTRIBUTE_TAG), readText(reader)};
+				case USER_CHANNEL_ID_TAG -> userChannelId = readText(reader);
+				default -> skipElement(reader);
+			}
+		}
+		if (mainBot == null || importantBot == null || userChannelId == null)
+			xmlFormatException("Tag missing in Telegram Node");
+		List<String[]> bots = new ArrayList<>();
+		bots.add(mainBot);
+		bots.add(importantBot);
+		bots.add(new String[]{userChannelId});
+		return bots;
+	}
+	
+	/**
+	 * Will read the text of the current Element without Comments and move the reader to its end
+	 *
+	 * @param reader The reader at the start of the Element
+	 *
+	 * @return The text without leading and trailing spaces and new lines
+	 *
+	 * @throws XMLStreamException If the XML could not be read
+	 */
+	@Nonnull
+	private static String readText(@Nonnull XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> text
+						.append(reader.getText());
+				case XMLStreamConstants.START_ELEMENT -> depth++;
+				case XMLStreamConstants.END_ELEMENT -> depth--;
+			}
+		}
+		return trimText(text.toString());
+	}
+	
+	/**
+	 * Will move the reader to the end of the current Element
+	 *
+	 * @param reader The reader at the start of the Element
+	 *
+	 * @throws XMLStreamException If the XML could not be read
+	 */
+	private static void skipElement(@Nonnull XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+				depth++;
+			else if (event == XMLStreamConstants.END_ELEMENT)
+				depth--;
+		}
 	}
 	
 	/**
 	 * Will retrieve the saved Timezones
 	 *
+	 * @param doc The Document of the domain
+	 *
 	 * @return A HashMap of all saved Timezones. Can be empty
 	 */
-	public static Map<Long, String> getTimezones() {
-		NodeList nList = getDocument().getElementsByTagName(TIMEZONES_TAG);
+	static Map<Long, String> readTimezones(Document doc) {
+		NodeList nList = doc.getElementsByTagName(TIMEZONES_TAG);
 		Map<Long, String> timezones = new HashMap<>();
 		if (nList.getLength() == 1) {
 			try {
@@ -314,12 +600,12 @@ public class XMLParser {
 	}
 	
 	/**
-	 * Will save the given Timezones
+	 * Will put the given Timezones in the Document
 	 *
+	 * @param doc The Document of the domain
 	 * @param timezones The Timezones to save
 	 */
-	public static void saveTimezones(Map<Long, String> timezones) {
-		Document doc = getDocument();
+	static void writeTimezones(Document doc, Map<Long, String> timezones) {
 		NodeList timezonesNodeList = doc.getElementsByTagName(TIMEZONES_TAG);
 		
 		Node timezonesNode;
@@ -342,58 +628,17 @@ public class XMLParser {
 			
 			timezonesNode.appendChild(timezoneNode);
 		});
-		
-		logger.info("Saving the Timezones");
-		writeDocument(doc);
-	}
-	
-	/**
-	 * Will get the Information for the Telegram Bots if available
-	 *
-	 * @return The Information for the Bots or {@code null} if not available
-	 */
-	public static ArrayList<String[]> getTelegramBots() {
-		NodeList nList = getDocument().getElementsByTagName(TELEGRAM_TAG);
-		if (nList.getLength() == 1) {
-			try {
-				ArrayList<String[]> bots = new ArrayList<>();
-				Element element = (Element) nList.item(0);
-				
-				// get the Main Bot Information
-				Element MainBotTag = (Element) element.getElementsByTagName(TELEGRAM_MAIN_BOT_TAG)
-						.item(0);
-				bots.add(new String[]{MainBotTag.getAttribute(USERNAME_ATTRIBUTE_TAG),
-						readTextElement(MainBotTag)});
-				
-				// get the Important Bot Information
-				Element ImportantBotTag = (Element) element
-						.getElementsByTagName(TELEGRAM_IMPORTANT_BOT_TAG).item(0);
-				bots.add(new String[]{ImportantBotTag.getAttribute(USERNAME_ATTRIBUTE_TAG),
-						readTextElement(ImportantBotTag)});
-				
-				// get the user channel ID
-				bots.add(new String[]{readTextElement(
-						element.getElementsByTagName(USER_CHANNEL_ID_TAG).item(0))});
-				
-				logger.info("Got the Telegram Bot information");
-				return bots;
-			} catch (NullPointerException e) {
-				xmlFormatException("Tag missing in Telegram Node");
-			}
-		} else if (nList.getLength() == 0)
-			logger.warn("No Telegram Bot information. You won't get the Telegram Logs");
-		else
-			xmlFormatException("multiple Telegram Tags");
-		return null;
 	}
 	
 	/**
 	 * Will get the saved Countdowns
 	 *
+	 * @param doc The Document of the domain
+	 *
 	 * @return An Arraylist with the Countdowns that were saved. Can be empty
 	 */
-	public static ArrayList<String[]> getCountdowns() {
-		NodeList nList = getDocument().getElementsByTagName(COUNTDOWNS_TAG);
+	static ArrayList<String[]> readCountdowns(Document doc) {
+		NodeList nList = doc.getElementsByTagName(COUNTDOWNS_TAG);
 		ArrayList<String[]> output = new ArrayList<>();
 		if (nList.getLength() == 1) {
 			try {
@@ -417,12 +662,12 @@ public class XMLParser {
 	}
 	
 	/**
-	 * Will save the given Countdowns
+	 * Will put the given Countdowns in the Document
 	 *
-	 * @param countdowns The Countdowns to save
+	 * @param doc The Document of the domain
+	 * @param countdowns The Countdowns to save, with the layout of {@link Countdown#getInfos()}
 	 */
-	public static void saveCountdowns(Stack<CountdownsThread> countdowns) {
-		Document doc = getDocument();
+	static void writeCountdowns(Document doc, Collection<String[]> countdowns) {
 		NodeList countdownsNodeList = doc.getElementsByTagName(COUNTDOWNS_TAG);
 		Node countdownsNode;
 		if (countdownsNodeList.getLength() == 0) {
@@ -432,8 +677,7 @@ public class XMLParser {
 			countdownsNode = countdownsNodeList.item(0);
 		
 		clearNode(countdownsNode);
-		countdowns.forEach(countdownsThread -> {
-			String[] infos = countdownsThread.getInfos();
+		countdowns.forEach(infos -> {
 			Node countdownNode = doc.createElement(COUNTDOWN_TAG);
 			
 			Node child = doc.createElement(CHANNEL_ID_TAG);
@@ -454,149 +698,81 @@ public class XMLParser {
 			
 			countdownsNode.appendChild(countdownNode);
 		});
-		
-		logger.info("Saving the Countdowns");
-		writeDocument(doc);
 	}
 	
 	/**
 	 * Will get all saved Events
 	 *
-	 * @return The HashMap with all Events
+	 * @param doc The Document of the domain
+	 *
+	 * @return The saved form of all Event Groups
 	 */
-	public static HashMap<Long, List<Object>> getEvents(JDA jda) {
-		HashMap<Long, List<Object>> eventsMap = new HashMap<>();
+	static List<EventData.GroupData> readEvents(Document doc) {
+		List<EventData.GroupData> groups = new ArrayList<>();
 		
-		NodeList nList = getDocument().getElementsByTagName(EVENTS_TAG);
+		NodeList nList = doc.getElementsByTagName(EVENTS_TAG);
 		
 		if (nList.getLength() == 1) {
-			int events = 0;
 			try {
 				Element element = (Element) nList.item(0);
 				NodeList eventGroupList = element.getElementsByTagName(EVENT_GROUP_TAG);
 				for (int i = 0; i < eventGroupList.getLength(); i++) {
 					Element eventGroup = (Element) eventGroupList.item(i);
 					
-					ArrayList<Object> eventList = new ArrayList<>();
-					eventList.add(1); // setup a temporary active index
-					long userID = Long.parseLong(eventGroup.getAttribute(ID_ATTRIBUTE_TAG));
+					EventData.GroupData group = new EventData.GroupData(
+							Long.parseLong(eventGroup.getAttribute(ID_ATTRIBUTE_TAG)));
 					
 					NodeList eventGroupChildren = eventGroup.getElementsByTagName("*");
 					for (int j = 0; j < eventGroupChildren.getLength(); j++) {
 						Element eventGroupChild = (Element) eventGroupChildren.item(j);
 						if (eventGroupChild.getParentNode().equals(eventGroup)) {
 							switch (eventGroupChild.getNodeName()) {
-								case ACTIVE_EVENT_TAG -> eventList.set(0, Integer
-										.parseInt(readTextElement(eventGroupChild)));
-								case EVENT_TAG -> eventList.add(getEvent(jda, eventGroupChild));
+								case ACTIVE_EVENT_TAG -> group.activeIndex = Integer // 1-based
+										.parseInt(readTextElement(eventGroupChild)) - 1;
+								case EVENT_TAG -> group.events.add(readEvent(eventGroupChild));
 							}
-							events += eventList.size() - 1;
 						}
 					}
-					eventsMap.put(userID, eventList);
+					groups.add(group);
 				}
 			} catch (NumberFormatException e) {
 				logger.error("Could not retrieve all event. Number Format Exception");
 				System.exit(1);
 			}
-			logger.info("Got the saved Events. Got " + events + " events");
 		} else
 			logger.info("No Events to get");
 		
-		return eventsMap;
+		return groups;
 	}
 	
 	/**
-	 * Returns one instance of an Event
+	 * Returns the saved form of one Event
 	 *
-	 * @param jda The JDA to create an {@link EventInstance}
 	 * @param event The Event Element to parse
 	 *
-	 * @return The corresponding {@link EventInstance}
+	 * @return The saved form of the Event
 	 *
 	 * @throws NumberFormatException If an ID could not be parsed to a Long
 	 */
-	private static EventInstance getEvent(JDA jda, Element event) throws NumberFormatException {
-		Guild guild = null;
-		String title = null;
-		String desc = null;
-		
-		TemporalAccessor startTime = null;
-		TemporalAccessor stopTime = null;
-		boolean eventDateSet = false;
-		boolean startTimeSet = false;
-		boolean stopTimeSet = false;
-		
-		boolean maybeToggle = false;
-		boolean backupToggle = false;
-		boolean vote = false;
-		
-		AtomicReference<Message> commandsMessage = new AtomicReference<>();
-		AtomicReference<Message> eventPrivateEmbedMessage = new AtomicReference<>();
-		AtomicReference<Message> eventEmbedMessage = new AtomicReference<>();
-		MessageChannel eventEmbedMessageChannel = null;
-		
-		ArrayList<Long> maybeUsers = new ArrayList<>();
-		ArrayList<Long> backupUsers = new ArrayList<>();
-		
-		ArrayList<Location> locations = new ArrayList<>();
-		
+	private static EventData readEvent(Element event) throws NumberFormatException {
+		EventData data = new EventData();
 		NodeList eventTagChildren = event.getElementsByTagName("*");
 		for (int i = 0; i < eventTagChildren.getLength(); i++) {
 			Element eventChild = (Element) eventTagChildren.item(i);
 			if (eventChild.getParentNode().equals(event)) {
 				switch (eventChild.getNodeName()) {
-					case GUILD_TAG -> {
-						guild = jda.getGuildById(readTextElement(eventChild));
-						if (guild == null) {
-							logger.error("Could not connect to specified guild");
-							System.exit(1);
-						}
-					}
-					case TITLE_TAG -> title = readTextElement(eventChild);
-					case DESCRIPTION_TAG -> desc = readTextElement(eventChild);
+					case GUILD_TAG -> data.guildId = Long.parseLong(readTextElement(eventChild));
+					case TITLE_TAG -> data.title = readTextElement(eventChild);
+					case DESCRIPTION_TAG -> data.description = readTextElement(eventChild);
 					case TIMES_TAG -> {
 						NodeList timeChildren = eventChild.getElementsByTagName("*");
 						for (int j = 0; j < timeChildren.getLength(); j++) {
 							Element timeChild = (Element) timeChildren.item(j);
 							String date = readTextElement(timeChild);
 							switch (timeChild.getNodeName()) {
-								case EVENT_DATE_TAG -> {
-									eventDateSet = !date.equals(EventInstance.notSet);
-									if (eventDateSet) {
-										String timeStart;
-										// check if we have a start Time, if not default to 00:00
-										if (startTime != null) {
-											timeStart = EventInstance.sdfTime.format(startTime);
-										} else {
-											timeStart = "00:00";
-										}
-										String timeStop;
-										// check if we have a end Time, if not default to 00:00
-										if (stopTime != null) {
-											timeStop = EventInstance.sdfTime.format(stopTime);
-										} else {
-											timeStop = "00:00";
-										}
-										
-										startTime = EventInstance.sdfComplete
-												.parse(date + " " + timeStart);
-										stopTime = EventInstance.sdfComplete
-												.parse(date + " " + timeStop);
-									}
-								}
-								case START_TIME_TAG -> {
-									startTimeSet = !date.equals(EventInstance.notSet);
-									if (startTimeSet) {
-										startTime = getTime(date, startTime);
-									}
-								}
-								case STOP_TIME_TAG -> {
-									stopTimeSet = !date.equals(EventInstance.notSet);
-									if (stopTimeSet) {
-										stopTime = getTime(date, stopTime);
-									}
-								}
+								case EVENT_DATE_TAG -> data.eventDate = date;
+								case START_TIME_TAG -> data.startTime = date;
+								case STOP_TIME_TAG -> data.stopTime = date;
 							}
 						}
 					}
@@ -606,9 +782,9 @@ public class XMLParser {
 							Element toggleChild = (Element) toggleChildren.item(j);
 							boolean toggle = Boolean.parseBoolean(readTextElement(toggleChild));
 							switch (toggleChild.getNodeName()) {
-								case MAYBE_TOGGLE_TAG -> maybeToggle = toggle;
-								case BACKUP_TOGGLE_TAG -> backupToggle = toggle;
-								case VOTE_TOGGLE_TAG -> vote = toggle;
+								case MAYBE_TOGGLE_TAG -> data.maybeToggle = toggle;
+								case BACKUP_TOGGLE_TAG -> data.backupToggle = toggle;
+								case VOTE_TOGGLE_TAG -> data.vote = toggle;
 							}
 						}
 					}
@@ -620,54 +796,17 @@ public class XMLParser {
 									.parseLong(messageChild.getAttribute(CHANNEL_ID_ATTRIBUTE_TAG));
 							long messageID = Long.parseLong(readTextElement(messageChild));
 							switch (messageChild.getNodeName()) {
-								case COMMAND_MESSAGE_TAG -> jda.openPrivateChannelById(channelID)
-										.queue(privateChannel -> {
-											if (privateChannel != null) {
-												privateChannel.retrieveMessageById(messageID)
-														.queue(message -> {
-															synchronized (commandsMessage) {
-																commandsMessage.set(message);
-																commandsMessage.notify();
-															}
-														});
-											} else {
-												logger.error(
-														"Could not find specified Private Channel");
-												System.exit(1);
-											}
-										});
-								case PRIVATE_EMBED_MESSAGE_TAG -> jda
-										.openPrivateChannelById(channelID)
-										.queue(privateChannel -> {
-											if (privateChannel != null) {
-												privateChannel.retrieveMessageById(messageID)
-														.queue(message -> {
-															synchronized (eventPrivateEmbedMessage) {
-																eventPrivateEmbedMessage
-																		.set(message);
-																eventPrivateEmbedMessage.notify();
-															}
-														});
-											} else {
-												logger.error(
-														"Could not find specified Private Channel");
-												System.exit(1);
-											}
-										});
+								case COMMAND_MESSAGE_TAG -> {
+									data.commandsUserId = channelID;
+									data.commandsMessageId = messageID;
+								}
+								case PRIVATE_EMBED_MESSAGE_TAG -> {
+									data.privateEmbedUserId = channelID;
+									data.privateEmbedMessageId = messageID;
+								}
 								case EVENT_EMBED_TAG -> {
-									eventEmbedMessageChannel = jda.getTextChannelById(channelID);
-									if (eventEmbedMessageChannel != null) {
-										eventEmbedMessageChannel.retrieveMessageById(messageID)
-												.queue(message -> {
-													synchronized (eventEmbedMessage) {
-														eventEmbedMessage.set(message);
-														eventEmbedMessage.notify();
-													}
-												});
-									} else {
-										logger.error("Could not find specified Guild Channel");
-										System.exit(1);
-									}
+									data.eventEmbedChannelId = channelID;
+									data.eventEmbedMessageId = messageID;
 								}
 							}
 						}
@@ -677,7 +816,8 @@ public class XMLParser {
 						for (int j = 0; j < maybeUserChildren.getLength(); j++) {
 							Element maybeUserChild = (Element) maybeUserChildren.item(j);
 							if (maybeUserChild.getNodeName().equals(USER_TAG))
-								maybeUsers.add(Long.parseLong(readTextElement(maybeUserChild)));
+								data.maybeUsers
+										.add(Long.parseLong(readTextElement(maybeUserChild)));
 						}
 					}
 					case BACKUP_USERS_TAG -> {
@@ -685,52 +825,140 @@ public class XMLParser {
 						for (int j = 0; j < backupUserChildren.getLength(); j++) {
 							Element backupUserChild = (Element) backupUserChildren.item(j);
 							if (backupUserChild.getNodeName().equals(USER_TAG))
-								backupUsers.add(Long.parseLong(readTextElement(backupUserChild)));
+								data.backupUsers
+										.add(Long.parseLong(readTextElement(backupUserChild)));
 						}
 					}
-					case LOCATION_TAG -> locations.add(getLocation(eventChild));
+					case LOCATION_TAG -> {
+						EventData.LocationData location = readLocation(eventChild);
+						if (location != null)
+							data.locations.add(location);
+					}
 				}
 			}
 		}
-		synchronized (commandsMessage) {
-			if (commandsMessage.get() == null) {
-				try {
-					commandsMessage.wait();
-				} catch (InterruptedException ignored) {
-				}
-			}
+		return data;
+	}
+	
+	/**
+	 * Retrieves the saved form of one Location
+	 *
+	 * @param location The Location Element to be parsed
+	 *
+	 * @return The saved form of the Location or null if it has no name
+	 *
+	 * @throws NumberFormatException if the User Tag was not parsable to a Long
+	 */
+	@Nullable
+	private static EventData.LocationData readLocation(Element location)
+			throws NumberFormatException {
+		String locationName = location.getAttribute(LOCATION_NAME_ATTRIBUTE_TAG);
+		if (locationName.equals("")) {
+			logger.error("Something went wrong while parsing an Location");
+			return null;
 		}
-		synchronized (eventPrivateEmbedMessage) {
-			if (eventPrivateEmbedMessage.get() == null) {
-				try {
-					eventPrivateEmbedMessage.wait();
-				} catch (InterruptedException ignored) {
+		EventData.LocationData data = new EventData.LocationData(locationName);
+		NodeList locationChildren = location.getElementsByTagName("*");
+		for (int i = 0; i < locationChildren.getLength(); i++) {
+			Element locationChild = (Element) locationChildren.item(i);
+			switch (locationChild.getNodeName()) {
+				case POSITION_TAG -> data.positions.add(readTextElement(locationChild));
+				case USER_TAG -> {
+					data.users.add(Long.parseLong(readTextElement(locationChild)));
+					data.userPositions.add(locationChild.getAttribute(USER_POSITION_ATTRIBUTE));
 				}
 			}
 		}
-		synchronized (eventEmbedMessage) {
-			if (eventEmbedMessage.get() == null) {
+		return data;
+	}
+	
+	/**
+	 * Will create the Events from their saved form. No Message is retrieved, the Events only keep
+	 * the IDs of their Messages, so there is nothing to wait for and the Events are created one
+	 * after the other on the calling Thread. An Event whose Guild, Channel or Date is not
+	 * available anymore is logged and left out, the other Events are still restored
+	 *
+	 * @param jda The JDA to create the {@link EventInstance}s
+	 * @param groups The saved form of all Event Groups
+	 *
+	 * @return The HashMap with all Events
+	 */
+	static HashMap<Long, EventGroup> createEvents(JDA jda, List<EventData.GroupData> groups) {
+		long start = System.nanoTime();
+		HashMap<Long, EventGroup> eventsMap = new HashMap<>();
+		int events = 0;
+		int saved = 0;
+		for (EventData.GroupData groupData : groups) {
+			EventGroup group = new EventGroup(groupData.ownerId);
+			for (EventData eventData : groupData.events) {
+				saved++;
 				try {
-					eventEmbedMessage.wait();
-				} catch (InterruptedException ignored) {
+					group.add(getEvent(jda, groupData.ownerId, eventData));
+				} catch (IllegalStateException | DateTimeException e) {
+					logger.error("Could not restore the Event \"" + eventData.title + "\" of "
+							+ groupData.ownerId + ", leaving it out: " + e.getMessage());
 				}
 			}
+			if (group.isEmpty())
+				continue;
+			if (groupData.activeIndex >= 0 && groupData.activeIndex < group.size())
+				group.setActiveIndex(groupData.activeIndex);
+			events += group.size();
+			eventsMap.put(groupData.ownerId, group);
 		}
-		if (guild == null || title == null || desc == null || eventEmbedMessageChannel == null ||
-				commandsMessage.get() == null || eventPrivateEmbedMessage.get() == null ||
-				eventEmbedMessage.get() == null) {
-			logger.error("Something went wrong while parsing an event");
-			logger.error("" + (guild == null) + (title == null) + (desc == null) + (
-					eventEmbedMessageChannel == null) +
-					(commandsMessage.get() == null) + (eventPrivateEmbedMessage.get() == null) +
-					(eventEmbedMessage.get() == null));
-			throw new IllegalArgumentException("Element was null when it shouldn't");
+		logger.info("Got the saved Events. Got " + events + " of " + saved + " events in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+		return eventsMap;
+	}
+	
+	/**
+	 * Returns one instance of an Event
+	 *
+	 * @param jda The JDA to create an {@link EventInstance}
+	 * @param ownerId The ID of the User that created the Event
+	 * @param data The saved form of the Event
+	 *
+	 * @return The corresponding {@link EventInstance}
+	 *
+	 * @throws IllegalStateException If the Guild or the Channel of the Event Embed is not
+	 * 		available
+	 * @throws DateTimeException If the Event Date could not be parsed
+	 */
+	private static EventInstance getEvent(JDA jda, long ownerId, EventData data)
+			throws IllegalStateException, DateTimeException {
+		Guild guild = jda.getGuildById(data.guildId);
+		if (guild == null)
+			throw new IllegalStateException("Guild " + data.guildId + " not found");
+		TextChannel eventEmbedMessageChannel = jda.getTextChannelById(data.eventEmbedChannelId);
+		if (eventEmbedMessageChannel == null)
+			throw new IllegalStateException("Channel " + data.eventEmbedChannelId + " not found");
+		
+		TemporalAccessor startTime = null;
+		TemporalAccessor stopTime = null;
+		boolean eventDateSet = !data.eventDate.equals(EventInstance.notSet);
+		boolean startTimeSet = !data.startTime.equals(EventInstance.notSet);
+		boolean stopTimeSet = !data.stopTime.equals(EventInstance.notSet);
+		if (eventDateSet) {
+			startTime = EventInstance.sdfComplete.parse(data.eventDate + " 00:00");
+			stopTime = EventInstance.sdfComplete.parse(data.eventDate + " 00:00");
 		}
-		return new EventInstance(guild, title, desc, startTime, stopTime, eventDateSet,
-				startTimeSet, stopTimeSet, maybeToggle, backupToggle, vote, commandsMessage.get(),
-				eventPrivateEmbedMessage.get(), eventEmbedMessage.get(), eventEmbedMessageChannel,
-				maybeUsers,
-				backupUsers, locations);
+		if (startTimeSet)
+			startTime = getTime(data.startTime, startTime);
+		if (stopTimeSet)
+			stopTime = getTime(data.stopTime, stopTime);
+		
+		ArrayList<Location> locations = new ArrayList<>();
+		for (EventData.LocationData location : data.locations)
+			locations.add(new Location(location.name, location.positions, location.users,
+					location.userPositions));
+		
+		return new EventInstance(ownerId, guild, data.title, data.description, startTime,
+				stopTime, eventDateSet, startTimeSet, stopTimeSet, data.maybeToggle,
+				data.backupToggle, data.vote,
+				new PrivateMessage(data.commandsUserId, data.commandsMessageId),
+				new PrivateMessage(data.privateEmbedUserId, data.privateEmbedMessageId),
+				data.eventEmbedMessageId, eventEmbedMessageChannel, data.maybeUsers,
+				data.backupUsers, locations);
 	}
 	
 	/**
@@ -754,45 +982,12 @@ public class XMLParser {
 	}
 	
 	/**
-	 * Retrieves one Location Instance
+	 * Will put the given Events in the Document
 	 *
-	 * @param location The Location Element to be parsed
-	 *
-	 * @return The {@link Location} Instance
-	 *
-	 * @throws NumberFormatException if the User Tag was not parsable to a Long
+	 * @param doc The Document of the domain
+	 * @param groups The saved form of the Event Groups to save
 	 */
-	private static Location getLocation(Element location) throws NumberFormatException {
-		String locationName = location.getAttribute(LOCATION_NAME_ATTRIBUTE_TAG);
-		ArrayList<String> positions = new ArrayList<>();
-		ArrayList<Long> users = new ArrayList<>();
-		ArrayList<String> userPositions = new ArrayList<>();
-		
-		NodeList locationChildren = location.getElementsByTagName("*");
-		for (int i = 0; i < locationChildren.getLength(); i++) {
-			Element locationChild = (Element) locationChildren.item(i);
-			switch (locationChild.getNodeName()) {
-				case POSITION_TAG -> positions.add(readTextElement(locationChild));
-				case USER_TAG -> {
-					users.add(Long.parseLong(readTextElement(locationChild)));
-					userPositions.add(locationChild.getAttribute(USER_POSITION_ATTRIBUTE));
-				}
-			}
-		}
-		if (locationName == null || locationName.equals("")) {
-			logger.error("Something went wrong while parsing an Location");
-			return null;
-		}
-		return new Location(locationName, positions, users, userPositions);
-	}
-	
-	/**
-	 * Will save the given Events
-	 *
-	 * @param eventsMap The Events to save
-	 */
-	public static void saveEvents(HashMap<Long, List<Object>> eventsMap) {
-		Document doc = getDocument();
+	static void writeEvents(Document doc, List<EventData.GroupData> groups) {
 		NodeList eventsNodeList = doc.getElementsByTagName(EVENTS_TAG);
 		Node eventsNode;
 		if (eventsNodeList.getLength() == 0) {
@@ -803,49 +998,49 @@ public class XMLParser {
 		
 		clearNode(eventsNode);
 		
-		eventsMap.forEach((authorID, list) -> {
+		for (EventData.GroupData group : groups) {
 			Element eventGroupNode = doc.createElement(EVENT_GROUP_TAG);
 			
 			// User ID of Event Group
-			eventGroupNode.setAttribute(ID_ATTRIBUTE_TAG, authorID.toString());
+			eventGroupNode.setAttribute(ID_ATTRIBUTE_TAG, Long.toString(group.ownerId));
 			
 			// Active Event Index
 			Node groupChild = doc.createElement(ACTIVE_EVENT_TAG);
-			groupChild.appendChild(doc.createTextNode(((Integer) list.get(0)).toString()));
+			groupChild.appendChild(
+					doc.createTextNode(Integer.toString(group.activeIndex + 1))); // 1-based
 			eventGroupNode.appendChild(groupChild);
 			
-			for (int i = 1; i < list.size(); i++) {
+			for (EventData event : group.events) {
 				groupChild = doc.createElement(EVENT_TAG);
-				EventInstance eventInstance = (EventInstance) list.get(i);
 				
 				// Guild ID
 				Node guild = doc.createElement(GUILD_TAG);
-				guild.appendChild(doc.createTextNode(eventInstance.guild.getId()));
+				guild.appendChild(doc.createTextNode(Long.toString(event.guildId)));
 				groupChild.appendChild(guild);
 				
 				// Title
 				Node title = doc.createElement(TITLE_TAG);
-				title.appendChild(doc.createTextNode(eventInstance.getTitle()));
+				title.appendChild(doc.createTextNode(event.title));
 				groupChild.appendChild(title);
 				
 				// Description
 				Node desc = doc.createElement(DESCRIPTION_TAG);
-				desc.appendChild(doc.createTextNode(eventInstance.getDescription()));
+				desc.appendChild(doc.createTextNode(event.description));
 				groupChild.appendChild(desc);
 				
 				// Times
 				Node times = doc.createElement(TIMES_TAG);
 				
 				Node eventDate = doc.createElement(EVENT_DATE_TAG);
-				eventDate.appendChild(doc.createTextNode(eventInstance.getEventDate()));
+				eventDate.appendChild(doc.createTextNode(event.eventDate));
 				times.appendChild(eventDate);
 				
 				Node startTime = doc.createElement(START_TIME_TAG);
-				startTime.appendChild(doc.createTextNode(eventInstance.getStartTime()));
+				startTime.appendChild(doc.createTextNode(event.startTime));
 				times.appendChild(startTime);
 				
 				Node endTime = doc.createElement(STOP_TIME_TAG);
-				endTime.appendChild(doc.createTextNode(eventInstance.getStopTime()));
+				endTime.appendChild(doc.createTextNode(event.stopTime));
 				times.appendChild(endTime);
 				
 				groupChild.appendChild(times);
@@ -854,15 +1049,15 @@ public class XMLParser {
 				Node toggles = doc.createElement(TOGGLES_TAG);
 				
 				Node maybeToggle = doc.createElement(MAYBE_TOGGLE_TAG);
-				maybeToggle.appendChild(doc.createTextNode("" + eventInstance.maybeToggle));
+				maybeToggle.appendChild(doc.createTextNode("" + event.maybeToggle));
 				toggles.appendChild(maybeToggle);
 				
 				Node backupToggle = doc.createElement(BACKUP_TOGGLE_TAG);
-				backupToggle.appendChild(doc.createTextNode("" + eventInstance.backupToggle));
+				backupToggle.appendChild(doc.createTextNode("" + event.backupToggle));
 				toggles.appendChild(backupToggle);
 				
 				Node voteToggle = doc.createElement(VOTE_TOGGLE_TAG);
-				voteToggle.appendChild(doc.createTextNode("" + eventInstance.vote));
+				voteToggle.appendChild(doc.createTextNode("" + event.vote));
 				toggles.appendChild(voteToggle);
 				
 				groupChild.appendChild(toggles);
@@ -872,25 +1067,23 @@ public class XMLParser {
 				
 				Element commandMessage = doc.createElement(COMMAND_MESSAGE_TAG);
 				commandMessage.setAttribute(CHANNEL_ID_ATTRIBUTE_TAG,
-						((PrivateChannel) eventInstance.commandsMessage.getChannel()).getUser()
-								.getId());
+						Long.toString(event.commandsUserId));
 				commandMessage
-						.appendChild(doc.createTextNode(eventInstance.commandsMessage.getId()));
+						.appendChild(doc.createTextNode(Long.toString(event.commandsMessageId)));
 				messages.appendChild(commandMessage);
 				
 				Element privateEmbedMessage = doc.createElement(PRIVATE_EMBED_MESSAGE_TAG);
 				privateEmbedMessage.setAttribute(CHANNEL_ID_ATTRIBUTE_TAG,
-						((PrivateChannel) eventInstance.eventPrivateEmbedMessage.getChannel())
-								.getUser().getId());
+						Long.toString(event.privateEmbedUserId));
 				privateEmbedMessage.appendChild(
-						doc.createTextNode(eventInstance.eventPrivateEmbedMessage.getId()));
+						doc.createTextNode(Long.toString(event.privateEmbedMessageId)));
 				messages.appendChild(privateEmbedMessage);
 				
 				Element eventEmbedMessage = doc.createElement(EVENT_EMBED_TAG);
 				eventEmbedMessage.setAttribute(CHANNEL_ID_ATTRIBUTE_TAG,
-						eventInstance.eventEmbedMessage.getChannel().getId());
-				eventEmbedMessage
-						.appendChild(doc.createTextNode(eventInstance.eventEmbedMessage.getId()));
+						Long.toString(event.eventEmbedChannelId));
+				eventEmbedMessage.appendChild(
+						doc.createTextNode(Long.toString(event.eventEmbedMessageId)));
 				messages.appendChild(eventEmbedMessage);
 				
 				groupChild.appendChild(messages);
@@ -898,7 +1091,7 @@ public class XMLParser {
 				// maybe Users
 				Node maybeUsers = doc.createElement(MAYBE_USERS_TAG);
 				
-				for (Long user : eventInstance.maybeUsers) {
+				for (Long user : event.maybeUsers) {
 					Node userNode = doc.createElement(USER_TAG);
 					userNode.appendChild(doc.createTextNode("" + user));
 					maybeUsers.appendChild(userNode);
@@ -909,7 +1102,7 @@ public class XMLParser {
 				// backup Users
 				Node backupUsers = doc.createElement(BACKUP_USERS_TAG);
 				
-				for (Long user : eventInstance.backupUsers) {
+				for (Long user : event.backupUsers) {
 					Node userNode = doc.createElement(USER_TAG);
 					userNode.appendChild(doc.createTextNode("" + user));
 					backupUsers.appendChild(userNode);
@@ -918,9 +1111,9 @@ public class XMLParser {
 				groupChild.appendChild(backupUsers);
 				
 				// Locations
-				for (Location location : eventInstance.locations) {
+				for (EventData.LocationData location : event.locations) {
 					Element locationElement = doc.createElement(LOCATION_TAG);
-					locationElement.setAttribute(LOCATION_NAME_ATTRIBUTE_TAG, location.location);
+					locationElement.setAttribute(LOCATION_NAME_ATTRIBUTE_TAG, location.name);
 					
 					for (String position : location.positions) {
 						Node positionNode = doc.createElement(POSITION_TAG);
@@ -942,10 +1135,7 @@ public class XMLParser {
 			}
 			
 			eventsNode.appendChild(eventGroupNode);
-		});
-		
-		logger.info("Saving the Events");
-		writeDocument(doc);
+		}
 	}
 	
 	/**
@@ -967,12 +1157,25 @@ public class XMLParser {
 	 */
 	private static String readTextElement(@Nonnull Node node) {
 		String text = node.getTextContent();
-		if (text == null || text.equals(""))
+		if (text == null)
 			return "";
-		while (text.charAt(0) == '\n' || text.charAt(0) == ' ') {
+		return trimText(text);
+	}
+	
+	/**
+	 * Will remove the leading and trailing spaces and new lines
+	 *
+	 * @param text The text
+	 *
+	 * @return The text without leading and trailing spaces and new lines
+	 */
+	@Nonnull
+	private static String trimText(@Nonnull String text) {
+		while (!text.isEmpty() && (text.charAt(0) == '\n' || text.charAt(0) == ' ')) {
 			text = text.substring(1);
 		}
-		while (text.charAt(text.length() - 1) == '\n' || text.charAt(text.length() - 1) == ' ') {
+		while (!text.isEmpty() && (text.charAt(text.length() - 1) == '\n'
+				|| text.charAt(text.length() - 1) == ' ')) {
 			text = text.substring(0, text.length() - 1);
 		}
 		return text;
@@ -988,4 +1191,21 @@ public class XMLParser {
 		throw new RuntimeException("XML was wrongly formatted: " + reason);
 	}
 	
+/**
+	 * Writes the content of a File
+	 */
+	@FunctionalInterface
+	interface FileContent {
+		
+		/**
+		 * Writes the content
+		 *
+		 * @param output The Stream of the File
+		 *
+		 * @throws IOException If the content could not be written
+		 */
+		void write(OutputStream output) throws IOException;
+		
+	}
+	
 }
@@ -0,0 +1,140 @@
+package bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bot.CommandRouter.Command;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandRouterTest {
+	
+	/**
+	 * The arguments of the last executed test Command, {@code null} if none was executed
+	 */
+	private static String executedArguments;
+	
+	/**
+	 * The Channel of the Message, gets the replies of the Router
+	 */
+	private MessageChannel channel;
+	/**
+	 * The Message Receive Event that is dispatched
+	 */
+	private MessageReceivedEvent event;
+	
+	/**
+	 * Registers the Commands of the tests, only once because the prefix tree is shared
+	 */
+	@BeforeAll
+	static void registerCommands() {
+		CommandRouter.register(new Command("routertest", 0, "[text]",
+				(event, permissions, arguments) -> executedArguments = arguments, "rtest"));
+		CommandRouter.register(new Command("routeradmin", PermissionCache.ADMIN, "",
+				(event, permissions, arguments) -> executedArguments = arguments));
+		CommandRouter.register(new Command("routerparse", 0, "<amount>",
+				(event, permissions, arguments) -> Integer.parseInt(arguments)));
+	}
+	
+	/**
+	 * Creates a new Event for the next test
+	 */
+	@BeforeEach
+	void createEvent() {
+		executedArguments = null;
+		channel = mock(MessageChannel.class);
+		when(channel.sendMessage(anyString())).thenReturn(mock(MessageAction.class));
+		event = mock(MessageReceivedEvent.class);
+		when(event.getChannel()).thenReturn(channel);
+	}
+	
+	/**
+	 * A Command is found by its name and gets the arguments in lower case
+	 */
+	@Test
+	void dispatchesCommandWithArguments() {
+		assertTrue(CommandRouter.dispatch(event, "!routertest Some Text", 0));
+		assertEquals("some text", executedArguments);
+	}
+	
+	/**
+	 * The name of a Command is matched ignoring the case, and an alias finds the same Command
+	 */
+	@Test
+	void dispatchesIgnoringCaseAndByAlias() {
+		assertTrue(CommandRouter.dispatch(event, "!RouterTest", 0));
+		assertEquals("", executedArguments);
+		executedArguments = null;
+		assertTrue(CommandRouter.dispatch(event, "!rtest alias", 0));
+		assertEquals("alias", executedArguments);
+	}
+	
+	/**
+	 * A prefix of a Command name or a name that continues after it is not a Command
+	 */
+	@Test
+	void prefixIsNotACommand() {
+		assertFalse(CommandRouter.dispatch(event, "!routertes", 0));
+		assertFalse(CommandRouter.dispatch(event, "!routertestx", 0));
+		assertFalse(CommandRouter.dispatch(event, "!router test", 0));
+		assertNull(executedArguments);
+	}
+	
+	/**
+	 * A Message with an unknown Command or other characters than letters is not handled
+	 */
+	@Test
+	void unknownCommandIsNotHandled() {
+		assertFalse(CommandRouter.dispatch(event, "!zzunknown", 0));
+		assertFalse(CommandRouter.dispatch(event, "!routertest2", 0));
+		assertFalse(CommandRouter.dispatch(event, "!", 0));
+		assertNull(executedArguments);
+		verify(channel, never()).sendMessage(anyString());
+	}
+	
+	/**
+	 * A User without the Permission gets a reply and the Command is not executed
+	 */
+	@Test
+	void missingPermissionIsRejected() {
+		assertTrue(CommandRouter.dispatch(event, "!routeradmin", PermissionCache.OWNER));
+		assertNull(executedArguments);
+		verify(channel).sendMessage("You don't have permission for this command");
+		
+		assertTrue(CommandRouter.dispatch(event, "!routeradmin", PermissionCache.ADMIN));
+		assertEquals("", executedArguments);
+	}
+	
+	/**
+	 * An argument that is not a number is answered with the usage of the Command
+	 */
+	@Test
+	void numberFormatExceptionRepliesWithUsage() {
+		assertTrue(CommandRouter.dispatch(event, "!routerparse abc", 0));
+		verify(channel).sendMessage("Usage: `!routerparse <amount>`");
+	}
+	
+	/**
+	 * A name that is already registered or contains other characters than letters is rejected
+	 */
+	@Test
+	void invalidRegistrationIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> CommandRouter.register(
+				new Command("routertest", 0, "", (event, permissions, arguments) -> {})));
+		assertThrows(IllegalArgumentException.class, () -> CommandRouter.register(
+				new Command("router2", 0, "", (event, permissions, arguments) -> {})));
+	}
+	
+}
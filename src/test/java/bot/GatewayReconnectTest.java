@@ -0,0 +1,34 @@
+package bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Method;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.WebSocketClient;
+import org.junit.jupiter.api.Test;
+
+class GatewayReconnectTest {
+	
+	/**
+	 * The internal methods the soft restart uses exist in the JDA version of the build, otherwise
+	 * every restart would silently be a hard restart
+	 */
+	@Test
+	void methodsExistInJda() {
+		Method[] methods = GatewayReconnect.resolve(JDAImpl.class);
+		assertNotNull(methods,
+				"JDAImpl.getClient().close(int) is missing, update GatewayReconnect");
+		assertEquals(WebSocketClient.class, methods[0].getReturnType());
+	}
+	
+	/**
+	 * A JDA without the internal methods is detected instead of failing on the restart
+	 */
+	@Test
+	void missingMethodsAreDetected() {
+		assertNull(GatewayReconnect.resolve(Object.class));
+	}
+	
+}
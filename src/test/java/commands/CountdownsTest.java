@@ -0,0 +1,129 @@
+package commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import org.junit.jupiter.api.Test;
+
+class CountdownsTest {
+	
+	/**
+	 * The number of Countdowns that run at the same time
+	 */
+	private static final int COUNTDOWNS = 10_000;
+	/**
+	 * The number of Threads that add and remove Countdowns at the same time
+	 */
+	private static final int THREADS = 8;
+	/**
+	 * The first Message ID of the Countdowns of {@link #concurrentAddAndRemove()}, after the IDs
+	 * of {@link #allCountdownsRunOnOneThread()}
+	 */
+	private static final long FIRST_CONCURRENT_ID = COUNTDOWNS + 1;
+	
+	/**
+	 * Starts {@link #COUNTDOWNS} Countdowns and checks that all their edits are done by the one
+	 * Thread of the scheduler
+	 *
+	 * @throws InterruptedException If the test is interrupted while waiting for the edits
+	 */
+	@Test
+	void allCountdownsRunOnOneThread() throws InterruptedException {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch edits = new CountDownLatch(COUNTDOWNS);
+		MessageAction action = mock(MessageAction.class);
+		MessageChannel channel = mock(MessageChannel.class);
+		when(channel.editMessageById(anyLong(), any(CharSequence.class))).thenAnswer(invocation -> {
+			threads.add(Thread.currentThread().getName());
+			edits.countDown();
+			return action;
+		});
+		
+		Instant date = Instant.now().plus(30, ChronoUnit.DAYS);
+		for (long messageId = 1; messageId <= COUNTDOWNS; messageId++)
+			new Countdowns.Countdown(channel, messageId, "test", date);
+		
+		assertTrue(edits.await(30, TimeUnit.SECONDS), "Not every Countdown was edited");
+		assertEquals(Set.of("Countdowns"), threads);
+		for (long messageId = 1; messageId <= COUNTDOWNS; messageId++) {
+			assertTrue(Countdowns.isCountdown(messageId));
+			assertTrue(Countdowns.stopCountdown(messageId));
+		}
+	}
+	
+	/**
+	 * {@link #THREADS} Threads add {@link #COUNTDOWNS} Countdowns at the same time, then every
+	 * Countdown is stopped by two Threads at the same time. Only one of them may stop it and
+	 * afterwards no Countdown may be left
+	 *
+	 * @throws Exception If a Thread failed or the test is interrupted
+	 */
+	@Test
+	void concurrentAddAndRemove() throws Exception {
+		MessageChannel channel = mock(MessageChannel.class);
+		when(channel.editMessageById(anyLong(), any(CharSequence.class)))
+				.thenReturn(mock(MessageAction.class));
+		Instant date = Instant.now().plus(30, ChronoUnit.DAYS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+		try {
+			List<Future<?>> adds = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				long first = FIRST_CONCURRENT_ID + thread;
+				adds.add(executor.submit(() -> {
+					for (long messageId = first; messageId < FIRST_CONCURRENT_ID + COUNTDOWNS;
+							messageId += THREADS) {
+						new Countdowns.Countdown(channel, messageId, "test", date);
+						assertTrue(Countdowns.isCountdown(messageId));
+					}
+				}));
+			}
+			for (Future<?> add : adds)
+				add.get(30, TimeUnit.SECONDS);
+			for (long messageId = FIRST_CONCURRENT_ID; messageId < FIRST_CONCURRENT_ID + COUNTDOWNS;
+					messageId++)
+				assertTrue(Countdowns.isCountdown(messageId));
+			
+			AtomicInteger stopped = new AtomicInteger();
+			List<Future<?>> removes = new ArrayList<>();
+			for (int thread = 0; thread < THREADS * 2; thread++) {
+				long first = FIRST_CONCURRENT_ID + thread % THREADS;
+				removes.add(executor.submit(() -> {
+					for (long messageId = first; messageId < FIRST_CONCURRENT_ID + COUNTDOWNS;
+							messageId += THREADS) {
+						if (Countdowns.stopCountdown(messageId))
+							stopped.incrementAndGet();
+						assertFalse(Countdowns.isCountdown(messageId));
+					}
+				}));
+			}
+			for (Future<?> remove : removes)
+				remove.get(30, TimeUnit.SECONDS);
+			assertEquals(COUNTDOWNS, stopped.get());
+			for (long messageId = FIRST_CONCURRENT_ID; messageId < FIRST_CONCURRENT_ID + COUNTDOWNS;
+					messageId++)
+				assertFalse(Countdowns.isCountdown(messageId));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+}
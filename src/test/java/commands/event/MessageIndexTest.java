@@ -0,0 +1,128 @@
+package commands.event;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import commands.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MessageIndexTest {
+	
+	/**
+	 * The ID of the Event Embed
+	 */
+	private static final long EVENT_EMBED = 1;
+	/**
+	 * The ID of the position choosing Embed
+	 */
+	private static final long POSITION_EMBED = 2;
+	/**
+	 * The ID of a Message that is not Event related
+	 */
+	private static final long OTHER_MESSAGE = 3;
+	
+	/**
+	 * The Event with its Event Embed registered
+	 */
+	private EventInstance eventInstance;
+	/**
+	 * The Location of the Event with its position choosing Embed registered
+	 */
+	private Location location;
+	
+	/**
+	 * Creates an Event like it is restored from the saved IDs and sends a position choosing Embed
+	 * of its Location, this registers both Embeds in the Index
+	 */
+	@BeforeEach
+	void createEvent() {
+		location = new Location("EDDF", new ArrayList<>(List.of("DEL", "GND")),
+				new ArrayList<>(), new ArrayList<>());
+		eventInstance = new EventInstance(42, mock(Guild.class), "Title", "Description", null,
+				null, false, false, false, true, true, false, new PrivateMessage(42, 10),
+				new PrivateMessage(42, 11), EVENT_EMBED,
+				mock(MessageChannel.class, RETURNS_DEEP_STUBS), new ArrayList<>(),
+				new ArrayList<>(), new ArrayList<>(List.of(location)));
+		
+		Message message = mock(Message.class, RETURNS_DEEP_STUBS);
+		when(message.getIdLong()).thenReturn(POSITION_EMBED);
+		MessageAction action = mock(MessageAction.class);
+		doAnswer(invocation -> {
+			invocation.<Consumer<Message>>getArgument(0).accept(message);
+			return null;
+		}).when(action).queue(any(), any());
+		MessageChannel privateChannel = mock(MessageChannel.class);
+		when(privateChannel.sendMessage(any(MessageEmbed.class))).thenReturn(action);
+		User user = mock(User.class);
+		when(user.getIdLong()).thenReturn(7L);
+		when(user.getName()).thenReturn("User");
+		location.postPositionEmbed(mock(MessageChannel.class), privateChannel, user);
+	}
+	
+	/**
+	 * Deletes the Event again, the Index is shared by all tests
+	 */
+	@AfterEach
+	void deleteEvent() {
+		eventInstance.deleteEvent();
+	}
+	
+	/**
+	 * Reactions on the Event Embed and on the position choosing Embed are routed to their Event
+	 * and Location
+	 */
+	@Test
+	void embedsAreRouted() {
+		assertTrue(Event.isEventMessage(EVENT_EMBED));
+		assertSame(eventInstance, MessageIndex.getEventInstance(EVENT_EMBED));
+		assertNull(MessageIndex.getLocation(EVENT_EMBED));
+		
+		assertTrue(Event.isEventMessage(POSITION_EMBED));
+		assertSame(location, MessageIndex.getLocation(POSITION_EMBED));
+		assertNull(MessageIndex.getEventInstance(POSITION_EMBED));
+	}
+	
+	/**
+	 * A Message that is not an Event related Message is not routed
+	 */
+	@Test
+	void unknownMessageIsNotRouted() {
+		assertFalse(Event.isEventMessage(OTHER_MESSAGE));
+		assertNull(MessageIndex.getEventInstance(OTHER_MESSAGE));
+		assertNull(MessageIndex.getLocation(OTHER_MESSAGE));
+	}
+	
+	/**
+	 * After the Event is deleted neither its Event Embed nor the position choosing Embed of its
+	 * Location are routed anymore
+	 */
+	@Test
+	void deletedEventIsNotRouted() {
+		eventInstance.deleteEvent();
+		
+		assertFalse(Event.isEventMessage(EVENT_EMBED));
+		assertNull(MessageIndex.getEventInstance(EVENT_EMBED));
+		assertFalse(Event.isEventMessage(POSITION_EMBED));
+		assertNull(MessageIndex.getLocation(POSITION_EMBED));
+		assertTrue(location.messages.isEmpty());
+	}
+	
+}
@@ -0,0 +1,329 @@
+package xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+class BinarySnapshotTest {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("Binary Snapshot Test");
+	
+	/**
+	 * The directory for the Files of one test
+	 */
+	@TempDir
+	File directory;
+	
+	/**
+	 * The Timezones are the same after they were written and read again
+	 *
+	 * @throws IOException If the File could not be written or read
+	 */
+	@Test
+	void timezonesRoundTrip() throws IOException {
+		Map<Long, String> timezones = new LinkedHashMap<>();
+		timezones.put(1L, "+01:00");
+		timezones.put(Long.MAX_VALUE, "-09:30");
+		timezones.put(42L, "Z");
+		File file = new File(directory, "Timezones.bin");
+		write(file, out -> BinarySnapshot.writeTimezones(out, timezones));
+		
+		assertEquals(timezones, BinarySnapshot.readTimezones(file));
+	}
+	
+	/**
+	 * Events with Locations, User positions, toggles and non-ASCII text are the same after they
+	 * were written and read again
+	 *
+	 * @throws IOException If the File could not be written or read
+	 */
+	@Test
+	void eventsRoundTrip() throws IOException {
+		List<EventData.GroupData> groups = createGroups(3, 2);
+		File file = new File(directory, "Events.bin");
+		write(file, out -> BinarySnapshot.writeEvents(out, groups));
+		
+		assertGroupsEqual(groups, BinarySnapshot.readEvents(file));
+	}
+	
+	/**
+	 * Events read from the binary format are the same after they went through the XML format
+	 *
+	 * @throws Exception If a File or Document could not be written or read
+	 */
+	@Test
+	void binaryToXmlRoundTrip() throws Exception {
+		List<EventData.GroupData> groups = createGroups(3, 2);
+		File file = new File(directory, "Events.bin");
+		write(file, out -> BinarySnapshot.writeEvents(out, groups));
+		List<EventData.GroupData> fromBinary = BinarySnapshot.readEvents(file);
+		
+		Document doc = newDocument();
+		XMLParser.writeEvents(doc, fromBinary);
+		List<EventData.GroupData> fromXml = XMLParser.readEvents(parse(toBytes(doc)));
+		
+		assertGroupsEqual(groups, fromXml);
+	}
+	
+	/**
+	 * A File that doesn't start with the magic number is rejected
+	 *
+	 * @throws IOException If the File could not be written
+	 */
+	@Test
+	void wrongMagicIsRejected() throws IOException {
+		File file = new File(directory, "Events.bin");
+		write(file, out -> {
+			DataOutputStream data = new DataOutputStream(out);
+			data.writeInt(0x3C3F786D); // "<?xm", the start of an XML File
+			data.writeShort(1);
+			data.writeByte(1);
+			data.writeInt(0);
+		});
+		
+		assertThrows(IOException.class, () -> BinarySnapshot.readEvents(file));
+	}
+	
+	/**
+	 * A File with an unknown version of the format is rejected
+	 *
+	 * @throws IOException If the File could not be written
+	 */
+	@Test
+	void wrongVersionIsRejected() throws IOException {
+		File file = new File(directory, "Events.bin");
+		write(file, out -> BinarySnapshot.writeEvents(out, createGroups(1, 1)));
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		bytes[5] = 99; // the lower byte of the version, after the 4 bytes of the magic number
+		Files.write(file.toPath(), bytes);
+		
+		assertThrows(IOException.class, () -> BinarySnapshot.readEvents(file));
+	}
+	
+	/**
+	 * A File that ends in the middle of an Event is rejected
+	 *
+	 * @throws IOException If the File could not be written
+	 */
+	@Test
+	void truncatedFileIsRejected() throws IOException {
+		File file = new File(directory, "Events.bin");
+		write(file, out -> BinarySnapshot.writeEvents(out, createGroups(2, 2)));
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 10));
+		
+		assertThrows(IOException.class, () -> BinarySnapshot.readEvents(file));
+	}
+	
+	/**
+	 * Measures loading 10000 Events from the binary and from the XML format
+	 *
+	 * @throws Exception If a File or Document could not be written or read
+	 */
+	@Test
+	void load10000Events() throws Exception {
+		List<EventData.GroupData> groups = createGroups(1000, 10);
+		File file = new File(directory, "Events.bin");
+		write(file, out -> BinarySnapshot.writeEvents(out, groups));
+		Document doc = newDocument();
+		XMLParser.writeEvents(doc, groups);
+		byte[] xml = toBytes(doc);
+		
+		long start = System.nanoTime();
+		List<EventData.GroupData> fromBinary = BinarySnapshot.readEvents(file);
+		long binaryTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		List<EventData.GroupData> fromXml = XMLParser.readEvents(parse(xml));
+		long xmlTime = System.nanoTime() - start;
+		
+		assertEquals(10000, fromBinary.stream().mapToInt(group -> group.events.size()).sum());
+		assertEquals(10000, fromXml.stream().mapToInt(group -> group.events.size()).sum());
+		logger.info("Loaded 10000 Events: binary " + file.length() + " bytes in "
+				+ TimeUnit.NANOSECONDS.toMillis(binaryTime) + "ms, XML " + xml.length
+				+ " bytes in " + TimeUnit.NANOSECONDS.toMillis(xmlTime) + "ms");
+	}
+	
+	/**
+	 * Creates Event Groups where every Event uses all fields, also used by {@link XMLParserTest}
+	 *
+	 * @param owners The amount of Event Groups
+	 * @param eventsPerOwner The amount of Events in every group
+	 *
+	 * @return The saved form of the Event Groups
+	 */
+	static List<EventData.GroupData> createGroups(int owners, int eventsPerOwner) {
+		List<EventData.GroupData> groups = new ArrayList<>();
+		for (int i = 0; i < owners; i++) {
+			EventData.GroupData group = new EventData.GroupData(1000L + i);
+			group.activeIndex = eventsPerOwner - 1;
+			for (int j = 0; j < eventsPerOwner; j++) {
+				EventData data = new EventData();
+				data.guildId = 1L << 40;
+				data.title = "\u00dcbung " + i + "-" + j + " \u2708 \u98db\u884c";
+				data.description = "Treffpunkt: Flugplatz K\u00f6ln\nBitte p\u00fcnktlich sein";
+				data.eventDate = "24.12.2020";
+				data.startTime = j % 2 == 0 ? "18:00" : "Not Set";
+				data.stopTime = "20:30";
+				data.maybeToggle = j % 2 == 0;
+				data.backupToggle = j % 3 == 0;
+				data.vote = j % 2 == 1;
+				data.commandsUserId = 2000L + i;
+				data.commandsMessageId = 3000L + j;
+				data.privateEmbedUserId = 2000L + i;
+				data.privateEmbedMessageId = 4000L + j;
+				data.eventEmbedChannelId = 5000L;
+				data.eventEmbedMessageId = Long.MAX_VALUE - j;
+				data.maybeUsers.add(6000L);
+				data.backupUsers.addAll(List.of(7000L, 7001L));
+				EventData.LocationData location = new EventData.LocationData("Tower S\u00fcd");
+				location.positions.addAll(List.of("Pilot", "Co-Pilot", "Lotse"));
+				location.users.addAll(List.of(8000L, 8001L));
+				location.userPositions.addAll(List.of("Pilot: ", "<:emote:123>"));
+				data.locations.add(location);
+				data.locations.add(new EventData.LocationData("Leere Halle"));
+				group.events.add(data);
+			}
+			groups.add(group);
+		}
+		return groups;
+	}
+	
+	/**
+	 * Checks that two lists of Event Groups have the same content
+	 *
+	 * @param expected The expected Event Groups
+	 * @param actual The Event Groups that were read
+	 */
+	private static void assertGroupsEqual(List<EventData.GroupData> expected,
+			List<EventData.GroupData> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			EventData.GroupData expectedGroup = expected.get(i);
+			EventData.GroupData actualGroup = actual.get(i);
+			assertEquals(expectedGroup.ownerId, actualGroup.ownerId);
+			assertEquals(expectedGroup.activeIndex, actualGroup.activeIndex);
+			assertEquals(expectedGroup.events.size(), actualGroup.events.size());
+			for (int j = 0; j < expectedGroup.events.size(); j++)
+				assertEventEqual(expectedGroup.events.get(j), actualGroup.events.get(j));
+		}
+	}
+	
+	/**
+	 * Checks that two Events have the same content
+	 *
+	 * @param expected The expected Event
+	 * @param actual The Event that was read
+	 */
+	private static void assertEventEqual(EventData expected, EventData actual) {
+		assertEquals(expected.guildId, actual.guildId);
+		assertEquals(expected.title, actual.title);
+		assertEquals(expected.description, actual.description);
+		assertEquals(expected.eventDate, actual.eventDate);
+		assertEquals(expected.startTime, actual.startTime);
+		assertEquals(expected.stopTime, actual.stopTime);
+		assertEquals(expected.maybeToggle, actual.maybeToggle);
+		assertEquals(expected.backupToggle, actual.backupToggle);
+		assertEquals(expected.vote, actual.vote);
+		assertEquals(expected.commandsUserId, actual.commandsUserId);
+		assertEquals(expected.commandsMessageId, actual.commandsMessageId);
+		assertEquals(expected.privateEmbedUserId, actual.privateEmbedUserId);
+		assertEquals(expected.privateEmbedMessageId, actual.privateEmbedMessageId);
+		assertEquals(expected.eventEmbedChannelId, actual.eventEmbedChannelId);
+		assertEquals(expected.eventEmbedMessageId, actual.eventEmbedMessageId);
+		assertEquals(expected.maybeUsers, actual.maybeUsers);
+		assertEquals(expected.backupUsers, actual.backupUsers);
+		assertEquals(expected.locations.size(), actual.locations.size());
+		for (int i = 0; i < expected.locations.size(); i++) {
+			EventData.LocationData expectedLocation = expected.locations.get(i);
+			EventData.LocationData actualLocation = actual.locations.get(i);
+			assertEquals(expectedLocation.name, actualLocation.name);
+			assertEquals(expectedLocation.positions, actualLocation.positions);
+			assertEquals(expectedLocation.users, actualLocation.users);
+			assertEquals(expectedLocation.userPositions, actualLocation.userPositions);
+		}
+	}
+	
+	/**
+	 * Creates a Document with the root Element of the domain Files
+	 *
+	 * @return The empty Document
+	 *
+	 * @throws Exception If no Document could be created
+	 */
+	private static Document newDocument() throws Exception {
+		Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		doc.appendChild(doc.createElement("root"));
+		return doc;
+	}
+	
+	/**
+	 * Serializes a Document to UTF-8
+	 *
+	 * @param doc The Document
+	 *
+	 * @return The XML text
+	 *
+	 * @throws Exception If the Document could not be serialized
+	 */
+	private static byte[] toBytes(Document doc) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TransformerFactory.newInstance().newTransformer()
+				.transform(new DOMSource(doc), new StreamResult(out));
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Parses XML text
+	 *
+	 * @param xml The XML text
+	 *
+	 * @return The Document
+	 *
+	 * @throws Exception If the XML could not be parsed
+	 */
+	private static Document parse(byte[] xml) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(xml));
+	}
+	
+	/**
+	 * Writes a File
+	 *
+	 * @param file The File
+	 * @param content What is written into the File
+	 *
+	 * @throws IOException If the File could not be written
+	 */
+	private static void write(File file, XMLParser.FileContent content) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			content.write(out);
+		}
+	}
+	
+}
@@ -0,0 +1,81 @@
+package xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+class XMLParserTest {
+	
+	/**
+	 * The Logger for Log Messages
+	 */
+	private static final Logger logger = LoggerFactory.getLogger("XML Parser Test");
+	/**
+	 * The longest time one save of the large Events.xml may take
+	 */
+	private static final Duration MAX_SAVE_TIME = Duration.ofSeconds(10);
+	
+	/**
+	 * The directory for the Files of one test
+	 */
+	@TempDir
+	File directory;
+	
+	/**
+	 * Saves an Events.xml with 10000 Events twice through
+	 * {@link XMLParser#writeDocument(Document, String)} and so
+	 * {@link XMLParser#writeFile(String, XMLParser.FileContent)}. Both saves have to finish in
+	 * {@link #MAX_SAVE_TIME}, the second one also keeps the first File as backup
+	 *
+	 * @throws Exception If the File could not be read again
+	 */
+	@Test
+	void save10000Events() throws Exception {
+		List<EventData.GroupData> groups = BinarySnapshotTest.createGroups(1000, 10);
+		File file = new File(directory, XMLParser.EVENTS_FILE_NAME);
+		
+		long firstSave = save(groups, file);
+		long backupLength = file.length();
+		long secondSave = save(groups, file);
+		
+		Document saved = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+		List<EventData.GroupData> read = XMLParser.readEvents(saved);
+		assertEquals(10000, read.stream().mapToInt(group -> group.events.size()).sum());
+		assertEquals(backupLength, new File(file.getPath() + ".1").length());
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+		logger.info("Saved 10000 Events: " + file.length() + " bytes in "
+				+ TimeUnit.NANOSECONDS.toMillis(firstSave) + "ms, again with backup in "
+				+ TimeUnit.NANOSECONDS.toMillis(secondSave) + "ms");
+	}
+	
+	/**
+	 * Saves the Events like the State Store does, including building the Document
+	 *
+	 * @param groups The saved form of the Event Groups
+	 * @param file The Events.xml
+	 *
+	 * @return The time the save took in nanoseconds
+	 */
+	private static long save(List<EventData.GroupData> groups, File file) {
+		return assertTimeoutPreemptively(MAX_SAVE_TIME, () -> {
+			long start = System.nanoTime();
+			Document doc = XMLParser.newDocument();
+			XMLParser.writeEvents(doc, groups);
+			assertTrue(XMLParser.writeDocument(doc, file.getPath()));
+			return System.nanoTime() - start;
+		});
+	}
+	
+}